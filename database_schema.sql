@@ -76,15 +76,18 @@ CREATE TABLE auctions (
     reserve_price DECIMAL(10, 2),
     highest_bid_id BIGINT,
     bid_count INT DEFAULT 0,
-    status ENUM('SCHEDULED', 'ACTIVE', 'CLOSED', 'CANCELLED') NOT NULL DEFAULT 'SCHEDULED',
+    status ENUM('SCHEDULED', 'ACTIVE', 'CLOSING', 'CLOSED', 'CANCELLED') NOT NULL DEFAULT 'SCHEDULED',
     winner_id BIGINT,
     closed_at TIMESTAMP NULL,
+    close_fence BIGINT NULL,
+    close_claim BIGINT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     FOREIGN KEY (winner_id) REFERENCES users(id) ON DELETE SET NULL,
     INDEX idx_end_time (end_time),
     INDEX idx_status (status),
+    INDEX idx_status_end_time (status, end_time),
     INDEX idx_item (item_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -98,8 +101,10 @@ CREATE TABLE bids (
     is_auto_bid BOOLEAN DEFAULT FALSE,
     status ENUM('ACTIVE', 'OUTBID', 'WINNING', 'WON', 'LOST', 'CANCELLED') NOT NULL DEFAULT 'ACTIVE',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    accepted_ref VARCHAR(64) NULL,
     FOREIGN KEY (auction_id) REFERENCES auctions(id) ON DELETE CASCADE,
     FOREIGN KEY (bidder_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_accepted_ref (accepted_ref),
     INDEX idx_auction (auction_id),
     INDEX idx_bidder (bidder_id),
     INDEX idx_created_at (created_at),
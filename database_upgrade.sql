@@ -0,0 +1,24 @@
+-- Collectibles Auction Marketplace Database Upgrade
+-- MySQL Database
+--
+-- Brings a database created from an earlier database_schema.sql up to date.
+-- Hibernate's ddl-auto: update adds missing columns but never changes an
+-- existing ENUM column or adds indexes, so run this once before starting the
+-- new version:
+--
+--   mysql -u your_username -p collectibles_marketplace < database_upgrade.sql
+--
+-- If the new version already started once, Hibernate has added the columns;
+-- the statements adding them then fail and can be skipped.
+
+-- Auctions claimed by a batch close are CLOSING until the close commits
+ALTER TABLE auctions MODIFY status ENUM('SCHEDULED', 'ACTIVE', 'CLOSING', 'CLOSED', 'CANCELLED') NOT NULL DEFAULT 'SCHEDULED';
+ALTER TABLE auctions ADD COLUMN close_fence BIGINT NULL;
+ALTER TABLE auctions ADD COLUMN close_claim BIGINT NULL;
+
+-- Active auctions by end time, for the closing sweep and the close backlog
+CREATE INDEX idx_status_end_time ON auctions (status, end_time);
+
+-- Bids persisted from the Redis queue or the bid journal, so a re-delivered batch is skipped
+ALTER TABLE bids ADD COLUMN accepted_ref VARCHAR(64) NULL;
+ALTER TABLE bids ADD CONSTRAINT uk_accepted_ref UNIQUE (accepted_ref);
@@ -0,0 +1,134 @@
+package com.marketplace.benchmark;
+
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.AuctionPriceSnapshots;
+import com.marketplace.engine.EndingSoonFeed;
+import com.marketplace.engine.PartitionedBidEngine;
+import com.marketplace.engine.ProxyBidBooks;
+import com.marketplace.engine.SoftCloseRule;
+import com.marketplace.enums.BiddingMode;
+import com.marketplace.service.BidService;
+import com.marketplace.service.LockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of concurrent bidders on a few hot auctions: the Redis
+ * lock-and-retry path versus the single-writer partitioned engine.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Djmh.args=BidPathBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(16)
+public class BidPathBenchmark {
+
+    @Param({ "1", "8" })
+    public int hotAuctions;
+
+    /** Simulated Redis round trip for each lock command of the lock-and-retry path. */
+    @Param({ "0", "250" })
+    public long lockRoundTripMicros;
+
+    private BidService lockAndRetry;
+    private BidService partitioned;
+    private PartitionedBidEngine engine;
+    private Long[] itemIds;
+    private final AtomicLong nextAmount = new AtomicLong(1_000);
+
+    @State(Scope.Thread)
+    public static class Bidder {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+        String email;
+        int bids;
+
+        @Setup(Level.Trial)
+        public void register(BidPathBenchmark benchmark) {
+            email = "bidder-" + SEQUENCE.incrementAndGet() + "@bench.local";
+            benchmark.lockAndRetryMarketplace.addUser(email);
+            benchmark.partitionedMarketplace.addUser(email);
+        }
+    }
+
+    InMemoryMarketplace lockAndRetryMarketplace;
+    InMemoryMarketplace partitionedMarketplace;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new PartitionedBidEngine(0);
+        lockAndRetryMarketplace = new InMemoryMarketplace();
+        partitionedMarketplace = new InMemoryMarketplace();
+        itemIds = new Long[hotAuctions];
+        for (int i = 0; i < hotAuctions; i++) {
+            // Both marketplaces allocate ids in the same order, so item ids line up
+            itemIds[i] = lockAndRetryMarketplace.addAuction(BigDecimal.ZERO, BigDecimal.ONE);
+            partitionedMarketplace.addAuction(BigDecimal.ZERO, BigDecimal.ONE);
+        }
+        lockAndRetry = bidService(lockAndRetryMarketplace, BiddingMode.LOCK);
+        partitioned = bidService(partitionedMarketplace, BiddingMode.PARTITIONED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public Object lockAndRetry(Bidder bidder) {
+        return bid(lockAndRetry, bidder);
+    }
+
+    @Benchmark
+    public Object partitioned(Bidder bidder) {
+        return bid(partitioned, bidder);
+    }
+
+    private Object bid(BidService bidService, Bidder bidder) {
+        Long itemId = itemIds[bidder.bids++ % itemIds.length];
+        BigDecimal amount = BigDecimal.valueOf(nextAmount.incrementAndGet());
+        try {
+            return bidService.placeBid(itemId, amount, null, bidder.email);
+        } catch (RuntimeException e) {
+            // Outbid between reading the counter and reaching the auction, or "System busy"
+            return e;
+        }
+    }
+
+    private BidService bidService(InMemoryMarketplace marketplace, BiddingMode mode) {
+        LockService lockService = InMemoryMarketplace.inMemoryLockService(lockRoundTripMicros);
+        BidService bidService = new BidService(
+                marketplace.bidRepository(),
+                marketplace.auctionRepository(),
+                marketplace.userRepository(),
+                marketplace.itemRepository(),
+                marketplace.proxyBidRepository(),
+                lockService,
+                InMemoryMarketplace.discardingMessagingTemplate(),
+                event -> {
+                },
+                engine,
+                new ProxyBidBooks(marketplace.proxyBidRepository(), marketplace.auctionRepository()),
+                null,
+                null,
+                new AuctionPriceSnapshots(new SimpleMeterRegistry(), new SoftCloseRule(0, 60)),
+                null,
+                null,
+                InMemoryMarketplace.noOpTransactionTemplate(),
+                new AuctionCloseSchedule(),
+                new SoftCloseRule(0, 60),
+                new EndingSoonFeed(marketplace.auctionRepository()));
+        ReflectionTestUtils.setField(bidService, "biddingMode", mode);
+        return bidService;
+    }
+}
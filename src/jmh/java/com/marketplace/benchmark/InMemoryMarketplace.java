@@ -0,0 +1,263 @@
+package com.marketplace.benchmark;
+
+import com.marketplace.engine.LockContention;
+import com.marketplace.entity.Auction;
+import com.marketplace.entity.Bid;
+import com.marketplace.entity.Item;
+import com.marketplace.entity.ProxyBid;
+import com.marketplace.entity.User;
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.enums.LockWaitMode;
+import com.marketplace.repository.AuctionRepository;
+import com.marketplace.repository.BidRepository;
+import com.marketplace.repository.ItemRepository;
+import com.marketplace.repository.ProxyBidRepository;
+import com.marketplace.repository.UserRepository;
+import com.marketplace.service.InMemoryLockService;
+import com.marketplace.service.StripedLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the repositories, lock and messaging collaborators
+ * of {@link com.marketplace.service.BidService}, so benchmarks measure the
+ * bidding logic itself rather than MySQL, Redis or STOMP round trips.
+ */
+public class InMemoryMarketplace {
+
+    private final Map<Long, Auction> auctions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> auctionIdsByItemId = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final Map<Long, User> usersById = new ConcurrentHashMap<>();
+    private final Map<Long, ProxyBid> proxyBids = new ConcurrentHashMap<>();
+    // Stands in for the (auction_id, bidder_id) index, so fake lookups stay O(1) with many proxies
+    private final Map<String, ProxyBid> proxyBidsByBidder = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private final User seller;
+
+    public InMemoryMarketplace() {
+        this.seller = addUser("seller@bench.local");
+    }
+
+    public User addUser(String email) {
+        User user = User.builder().id(ids.incrementAndGet()).email(email).username(email).build();
+        usersByEmail.put(email, user);
+        usersById.put(user.getId(), user);
+        return user;
+    }
+
+    /**
+     * Creates an active auction that ends far in the future and returns its item id.
+     */
+    public Long addAuction(BigDecimal startingPrice, BigDecimal minIncrement) {
+        Item item = Item.builder()
+                .id(ids.incrementAndGet())
+                .seller(seller)
+                .title("Benchmark item")
+                .currentPrice(startingPrice)
+                .build();
+        Auction auction = Auction.builder()
+                .id(ids.incrementAndGet())
+                .item(item)
+                .status(AuctionStatus.ACTIVE)
+                .startTime(LocalDateTime.now().minusHours(1))
+                .endTime(LocalDateTime.now().plusYears(1))
+                .minBidIncrement(minIncrement)
+                .build();
+        item.setAuction(auction);
+        auctions.put(auction.getId(), auction);
+        auctionIdsByItemId.put(item.getId(), auction.getId());
+        return item.getId();
+    }
+
+    public void addProxyBid(Long itemId, User bidder, BigDecimal maxAmount) {
+        ProxyBid proxyBid = ProxyBid.builder()
+                .id(ids.incrementAndGet())
+                .auction(auctions.get(auctionIdsByItemId.get(itemId)))
+                .bidder(bidder)
+                .maxAmount(maxAmount)
+                .currentAmount(BigDecimal.ZERO)
+                .isActive(true)
+                .build();
+        proxyBids.put(proxyBid.getId(), proxyBid);
+        proxyBidsByBidder.put(proxyBid.getAuction().getId() + ":" + bidder.getId(), proxyBid);
+    }
+
+    public AuctionRepository auctionRepository() {
+        return repository(AuctionRepository.class, Map.of(
+                "findIdByItemId", args -> Optional.ofNullable(auctionIdsByItemId.get((Long) args[0])),
+                "findById", args -> Optional.ofNullable(auctions.get((Long) args[0])),
+                "findByIdForUpdate", args -> Optional.ofNullable(auctions.get((Long) args[0])),
+                "save", args -> args[0]));
+    }
+
+    public ItemRepository itemRepository() {
+        return repository(ItemRepository.class, Map.of("save", args -> args[0]));
+    }
+
+    public BidRepository bidRepository() {
+        return repository(BidRepository.class, Map.of("save", args -> {
+            Bid bid = (Bid) args[0];
+            bid.setId(ids.incrementAndGet());
+            return bid;
+        }));
+    }
+
+    public UserRepository userRepository() {
+        return userRepository(0);
+    }
+
+    /**
+     * User repository whose lookup by email costs a simulated database round
+     * trip, as it does without a user cache in front of it.
+     */
+    public UserRepository userRepository(long lookupMicros) {
+        long lookupNanos = TimeUnit.MICROSECONDS.toNanos(lookupMicros);
+        return repository(UserRepository.class, Map.of(
+                "findByEmail", args -> {
+                    if (lookupNanos > 0) {
+                        LockSupport.parkNanos(lookupNanos);
+                    }
+                    return Optional.ofNullable(usersByEmail.get((String) args[0]));
+                },
+                "getReferenceById", args -> usersById.get((Long) args[0])));
+    }
+
+    public ProxyBidRepository proxyBidRepository() {
+        return repository(ProxyBidRepository.class, Map.of(
+                "findByAuctionIdAndIsActiveTrue", args -> proxyBids.values().stream()
+                        .filter(pb -> pb.getAuction().getId().equals(args[0]) && pb.getIsActive())
+                        .toList(),
+                "findByAuctionIdAndBidderId",
+                args -> Optional.ofNullable(proxyBidsByBidder.get(args[0] + ":" + args[1])),
+                "save", args -> {
+                    ProxyBid proxyBid = (ProxyBid) args[0];
+                    if (proxyBid.getId() == null) {
+                        proxyBid.setId(ids.incrementAndGet());
+                    }
+                    proxyBids.put(proxyBid.getId(), proxyBid);
+                    proxyBidsByBidder.put(proxyBid.getAuction().getId() + ":" + proxyBid.getBidder().getId(),
+                            proxyBid);
+                    return proxyBid;
+                }));
+    }
+
+    /**
+     * An {@link InMemoryLockService} whose every lock command is preceded by
+     * a simulated Redis round trip. The retry loop, including its 50 ms
+     * back-off, is the production code.
+     */
+    public static StripedLockService inMemoryLockService(long roundTripMicros) {
+        return inMemoryLockService(roundTripMicros, LockWaitMode.POLL, false);
+    }
+
+    /**
+     * Same, in the given wait mode and with or without the node-local lock
+     * queue. In {@code PUBSUB} mode a release reaches the
+     * waiters half a round trip after the releasing call returns, like a
+     * published message on the subscriber connection.
+     */
+    public static StripedLockService inMemoryLockService(long roundTripMicros, LockWaitMode waitMode,
+            boolean localQueue) {
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        Executor delivery = roundTripNanos > 0
+                ? CompletableFuture.delayedExecutor(roundTripNanos / 2, TimeUnit.NANOSECONDS)
+                : Runnable::run;
+        StripedLockService lockService = new InMemoryLockService(new LockContention(new SimpleMeterRegistry())) {
+            @Override
+            protected long setLock(String key, long leaseMs) {
+                roundTrip();
+                return super.setLock(key, leaseMs);
+            }
+
+            @Override
+            protected boolean deleteLock(String key, long token) {
+                roundTrip();
+                return super.deleteLock(key, token);
+            }
+
+            @Override
+            protected boolean renewLock(String key, long token, long leaseMs) {
+                roundTrip();
+                return super.renewLock(key, token, leaseMs);
+            }
+
+            @Override
+            protected void lockReleased(String key) {
+                if (waitMode == LockWaitMode.PUBSUB) {
+                    delivery.execute(() -> super.lockReleased(key));
+                }
+            }
+
+            private void roundTrip() {
+                if (roundTripNanos > 0) {
+                    LockSupport.parkNanos(roundTripNanos);
+                }
+            }
+        };
+        ReflectionTestUtils.setField(lockService, "waitMode", waitMode);
+        ReflectionTestUtils.setField(lockService, "localQueue", localQueue);
+        return lockService;
+    }
+
+    public static SimpMessagingTemplate discardingMessagingTemplate() {
+        return new SimpMessagingTemplate((message, timeout) -> true);
+    }
+
+    public static TransactionTemplate noOpTransactionTemplate() {
+        return new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        Map<String, Function<Object[], Object>> methods = new HashMap<>(handlers);
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " (in-memory)";
+                };
+            }
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return handler.apply(args);
+        });
+    }
+}
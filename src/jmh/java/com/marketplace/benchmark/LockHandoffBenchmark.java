@@ -0,0 +1,61 @@
+package com.marketplace.benchmark;
+
+import com.marketplace.enums.LockWaitMode;
+import com.marketplace.service.LockService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Threads taking turns on one lock through LockService.acquireLockWithRetry:
+ * 50 ms polling versus waiting for the published release, each with and
+ * without the node-local lock queue in front of Redis. Each operation
+ * waits for the lock, holds it briefly and releases it, so its time is mostly
+ * the hand-offs to the threads ahead of it.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Djmh.args=LockHandoffBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(4)
+public class LockHandoffBenchmark {
+
+    private static final String KEY = "auction:1";
+
+    @Param({ "POLL", "PUBSUB" })
+    public LockWaitMode waitMode;
+
+    /** Simulated Redis round trip for each lock command. */
+    @Param({ "0", "250" })
+    public long lockRoundTripMicros;
+
+    /** Node-local lock per key, false = every thread contends in Redis. */
+    @Param({ "false", "true" })
+    public boolean localQueue;
+
+    /** Time the lock is held, standing in for the bid's database work. */
+    @Param({ "200" })
+    public long holdMicros;
+
+    private LockService lockService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lockService = InMemoryMarketplace.inMemoryLockService(lockRoundTripMicros, waitMode, localQueue);
+    }
+
+    @Benchmark
+    public boolean acquireHoldRelease() {
+        if (!lockService.acquireLockWithRetry(KEY, 3000, 5000)) {
+            return false;
+        }
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+        lockService.releaseLock(KEY);
+        return true;
+    }
+}
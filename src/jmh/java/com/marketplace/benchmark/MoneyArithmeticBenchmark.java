@@ -0,0 +1,104 @@
+package com.marketplace.benchmark;
+
+import com.marketplace.engine.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The price arithmetic of one processBid call (minimum bid, effective max,
+ * proxy competition) in BigDecimal versus the long-cents Money type, with and
+ * without converting from/to BigDecimal at the entity boundary.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="MoneyArithmeticBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final BigDecimal[] currentPrices = new BigDecimal[SAMPLES];
+    private final BigDecimal[] amounts = new BigDecimal[SAMPLES];
+    private final BigDecimal[] maxProxies = new BigDecimal[SAMPLES];
+    private final BigDecimal[] opponentMaxes = new BigDecimal[SAMPLES];
+    private final Money[] currentPricesMoney = new Money[SAMPLES];
+    private final Money[] amountsMoney = new Money[SAMPLES];
+    private final Money[] maxProxiesMoney = new Money[SAMPLES];
+    private final Money[] opponentMaxesMoney = new Money[SAMPLES];
+    private final BigDecimal increment = new BigDecimal("1.00");
+    private final Money incrementMoney = Money.of(increment);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            long current = random.nextLong(1_000, 1_000_000);
+            currentPrices[i] = BigDecimal.valueOf(current, 2);
+            amounts[i] = BigDecimal.valueOf(current + random.nextLong(0, 5_000), 2);
+            maxProxies[i] = BigDecimal.valueOf(current + random.nextLong(0, 20_000), 2);
+            opponentMaxes[i] = BigDecimal.valueOf(current + random.nextLong(0, 20_000), 2);
+            currentPricesMoney[i] = Money.of(currentPrices[i]);
+            amountsMoney[i] = Money.of(amounts[i]);
+            maxProxiesMoney[i] = Money.of(maxProxies[i]);
+            opponentMaxesMoney[i] = Money.of(opponentMaxes[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        int i = next++ & (SAMPLES - 1);
+        BigDecimal amount = amounts[i];
+        BigDecimal minBid = currentPrices[i].add(increment);
+        if (amount.compareTo(minBid) < 0) {
+            return null;
+        }
+        BigDecimal effectiveMax = maxProxies[i].compareTo(amount) > 0 ? maxProxies[i] : amount;
+        BigDecimal opponentMax = opponentMaxes[i];
+        if (effectiveMax.compareTo(opponentMax) > 0) {
+            return opponentMax.add(increment).min(effectiveMax);
+        }
+        return amount.add(increment).min(opponentMax);
+    }
+
+    @Benchmark
+    public long money() {
+        int i = next++ & (SAMPLES - 1);
+        Money amount = amountsMoney[i];
+        Money minBid = currentPricesMoney[i].plus(incrementMoney);
+        if (amount.isLessThan(minBid)) {
+            return -1;
+        }
+        Money effectiveMax = maxProxiesMoney[i].max(amount);
+        Money opponentMax = opponentMaxesMoney[i];
+        if (effectiveMax.isGreaterThan(opponentMax)) {
+            return opponentMax.plus(incrementMoney).min(effectiveMax).cents();
+        }
+        return amount.plus(incrementMoney).min(opponentMax).cents();
+    }
+
+    /** Money arithmetic including the conversions processBid does at the entity boundary. */
+    @Benchmark
+    public BigDecimal moneyWithBoundaryConversion() {
+        int i = next++ & (SAMPLES - 1);
+        Money amount = Money.of(amounts[i]);
+        Money increment = Money.of(this.increment);
+        Money minBid = Money.of(currentPrices[i]).plus(increment);
+        if (amount.isLessThan(minBid)) {
+            return null;
+        }
+        Money effectiveMax = Money.of(maxProxies[i]).max(amount);
+        Money opponentMax = opponentMaxesMoney[i]; // Already Money in the proxy book
+        if (effectiveMax.isGreaterThan(opponentMax)) {
+            return opponentMax.plus(increment).min(effectiveMax).toBigDecimal();
+        }
+        return amount.plus(increment).min(opponentMax).toBigDecimal();
+    }
+}
@@ -0,0 +1,114 @@
+package com.marketplace.benchmark;
+
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.AuctionPriceSnapshots;
+import com.marketplace.engine.EndingSoonFeed;
+import com.marketplace.engine.ProxyBidBooks;
+import com.marketplace.engine.SoftCloseRule;
+import com.marketplace.entity.User;
+import com.marketplace.enums.BiddingMode;
+import com.marketplace.service.BidService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of one bid through BidService.processBid against
+ * in-memory repositories, by number of competing proxies and outcome:
+ * CASE_A = the incoming bid beats every proxy, CASE_B = the top proxy holds
+ * and auto-bids. With no proxies both outcomes are a plain bid.
+ *
+ * The bid enters through placeBid in LOCK mode with a zero-latency in-memory
+ * lock, so the lock and snapshot checks are included but cost next to nothing.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ProcessBidBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessBidBenchmark {
+
+    public enum Outcome {
+        CASE_A,
+        CASE_B
+    }
+
+    @Param({ "0", "10", "100", "1000" })
+    public int proxies;
+
+    @Param({ "CASE_A", "CASE_B" })
+    public Outcome outcome;
+
+    /** 0 = user found in an in-process map (cached), otherwise a simulated database round trip. */
+    @Param({ "0", "100" })
+    public long userLookupMicros;
+
+    private BidService bidService;
+    private Long itemId;
+    private String bidderEmail;
+    private long amountCents;
+    private long stepCents;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryMarketplace marketplace = new InMemoryMarketplace();
+        itemId = marketplace.addAuction(new BigDecimal("100.00"), new BigDecimal("1.00"));
+        bidderEmail = "bidder@bench.local";
+        marketplace.addUser(bidderEmail);
+
+        // Case A opponents top out well below the incoming bid, Case B ones far above any price reached
+        long opponentBaseCents = outcome == Outcome.CASE_A ? 20_000 : 100_000_000_000L;
+        for (int i = 0; i < proxies; i++) {
+            User opponent = marketplace.addUser("opponent-" + i + "@bench.local");
+            marketplace.addProxyBid(itemId, opponent, BigDecimal.valueOf(opponentBaseCents + i * 100L, 2));
+        }
+
+        if (proxies == 0) {
+            amountCents = 10_100; // Each bid becomes the price, the next one is one increment above
+            stepCents = 100;
+        } else if (outcome == Outcome.CASE_A) {
+            // Wins at top proxy + increment every time, which never reaches this amount
+            amountCents = opponentBaseCents + proxies * 100L + 100_000;
+            stepCents = 0;
+        } else {
+            amountCents = 10_100; // The proxy answers one increment above, the next bid one more
+            stepCents = 200;
+        }
+
+        bidService = new BidService(
+                marketplace.bidRepository(),
+                marketplace.auctionRepository(),
+                marketplace.userRepository(userLookupMicros),
+                marketplace.itemRepository(),
+                marketplace.proxyBidRepository(),
+                InMemoryMarketplace.inMemoryLockService(0),
+                InMemoryMarketplace.discardingMessagingTemplate(),
+                event -> {
+                },
+                null,
+                new ProxyBidBooks(marketplace.proxyBidRepository(), marketplace.auctionRepository()),
+                null,
+                null,
+                new AuctionPriceSnapshots(new SimpleMeterRegistry(), new SoftCloseRule(0, 60)),
+                null,
+                null,
+                InMemoryMarketplace.noOpTransactionTemplate(),
+                new AuctionCloseSchedule(),
+                new SoftCloseRule(0, 60),
+                new EndingSoonFeed(marketplace.auctionRepository()));
+        ReflectionTestUtils.setField(bidService, "biddingMode", BiddingMode.LOCK);
+    }
+
+    @Benchmark
+    public Object placeBid() {
+        BigDecimal amount = BigDecimal.valueOf(amountCents, 2);
+        amountCents += stepCents;
+        return bidService.placeBid(itemId, amount, null, bidderEmail);
+    }
+}
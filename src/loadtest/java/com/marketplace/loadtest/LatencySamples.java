@@ -0,0 +1,48 @@
+package com.marketplace.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Request latencies of one bidder thread, in nanoseconds. Each thread records
+ * into its own instance and the instances are merged once the run is over,
+ * so recording never contends.
+ */
+class LatencySamples {
+
+    private long[] values = new long[4096];
+    private int size;
+
+    void add(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static LatencySamples merge(List<LatencySamples> samples) {
+        LatencySamples merged = new LatencySamples();
+        merged.values = new long[Math.max(1, samples.stream().mapToInt(LatencySamples::size).sum())];
+        for (LatencySamples s : samples) {
+            System.arraycopy(s.values, 0, merged.values, merged.size, s.size);
+            merged.size += s.size;
+        }
+        Arrays.sort(merged.values, 0, merged.size);
+        return merged;
+    }
+
+    /**
+     * Nearest-rank percentile of merged (sorted) samples, in milliseconds.
+     */
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return values[Math.min(size, Math.max(1, rank)) - 1] / 1_000_000.0;
+    }
+}
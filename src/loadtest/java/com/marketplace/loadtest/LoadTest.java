@@ -0,0 +1,430 @@
+package com.marketplace.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.CollectiblesMarketplaceApplication;
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.LockContention;
+import com.marketplace.entity.Auction;
+import com.marketplace.entity.Item;
+import com.marketplace.entity.User;
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.enums.ItemStatus;
+import com.marketplace.enums.SaleType;
+import com.marketplace.enums.UserRole;
+import com.marketplace.repository.AuctionRepository;
+import com.marketplace.repository.BidRepository;
+import com.marketplace.repository.ItemRepository;
+import com.marketplace.repository.OrderRepository;
+import com.marketplace.repository.UserRepository;
+import com.marketplace.security.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.FileSystemUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: boots the application against H2, an embedded Redis
+ * and a stubbed RabbitMQ, then lets concurrent bidders place bids through
+ * {@code POST /api/bids} and browse {@code GET /api/items} while the auctions
+ * run out and are closed by AuctionClosingScheduler.
+ *
+ * Reports throughput, latency percentiles and bid outcomes (accepted, outbid,
+ * "System busy", ...) per operation, and how late auctions were closed.
+ *
+ * Run with: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--bidding.mode=PARTITIONED"
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final BigDecimal STARTING_PRICE = new BigDecimal("10.00");
+    private static final long INCREMENT_CENTS = 100;
+
+    private final Environment environment;
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int bidders;
+    private final int auctionCount;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final long closingWindowNanos;
+    private final double browseRatio;
+    private final double proxyRatio;
+    private final double retryRatio;
+
+    private final ConfigurableApplicationContext context;
+    private final List<Long> itemIds = new ArrayList<>();
+    private long[] endNanos;
+    // Lowest amount each auction is expected to accept, learned from responses
+    private AtomicLongArray minNextBidCents;
+    private final Map<String, LongAdder> bidOutcomes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> browseOutcomes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> retryOutcomes = new ConcurrentHashMap<>();
+
+    LoadTest(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.environment = context.getEnvironment();
+        this.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.bidders = setting("bidders", Integer.class);
+        this.auctionCount = setting("auctions", Integer.class);
+        this.durationNanos = Duration.ofSeconds(setting("duration-seconds", Long.class)).toNanos();
+        this.warmupNanos = Duration.ofSeconds(setting("warmup-seconds", Long.class)).toNanos();
+        this.closingWindowNanos = Duration.ofSeconds(setting("closing-window-seconds", Long.class)).toNanos();
+        this.browseRatio = setting("browse-ratio", Double.class);
+        this.proxyRatio = setting("proxy-ratio", Double.class);
+        this.retryRatio = setting("retry-ratio", Double.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        RedisServer redis = null;
+        if (!Arrays.asList(args).contains("--loadtest.embedded-redis=false")) {
+            int port = freePort();
+            redis = new RedisServer(port);
+            redis.start();
+            // System properties outrank application.yml; command line arguments still outrank them
+            System.setProperty("spring.data.redis.host", "localhost");
+            System.setProperty("spring.data.redis.port", String.valueOf(port));
+        }
+        Path journalDir = Files.createTempDirectory("bid-journal");
+        System.setProperty("bidding.journal.dir", journalDir.toString());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CollectiblesMarketplaceApplication.class)
+                .profiles("loadtest")
+                .run(args);
+        try {
+            new LoadTest(context).run();
+        } finally {
+            context.close();
+            if (redis != null) {
+                redis.stop();
+            }
+            FileSystemUtils.deleteRecursively(journalDir);
+        }
+    }
+
+    void run() throws InterruptedException {
+        List<String> tokens = seed();
+        log.info("Running {} bidders against {} auctions for {} s, bidding.mode={}", bidders, auctionCount,
+                Duration.ofNanos(durationNanos).toSeconds(), environment.getProperty("bidding.mode"));
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long deadline = start + durationNanos;
+        for (int i = 0; i < auctionCount; i++) {
+            // Auctions end one after another over the closing window, the last one when the run ends
+            endNanos[i] = deadline - closingWindowNanos * (auctionCount - 1 - i) / Math.max(1, auctionCount - 1);
+        }
+        scheduleEndTimes(start);
+
+        List<LatencySamples> bidSamples = new ArrayList<>();
+        List<LatencySamples> browseSamples = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < bidders; i++) {
+            LatencySamples bids = new LatencySamples();
+            LatencySamples browses = new LatencySamples();
+            bidSamples.add(bids);
+            browseSamples.add(browses);
+            String token = tokens.get(i);
+            Thread thread = new Thread(() -> bidderLoop(token, measureFrom, deadline, bids, browses), "bidder-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double measuredSeconds = (deadline - measureFrom) / 1e9;
+
+        report(measuredSeconds, LatencySamples.merge(bidSamples), LatencySamples.merge(browseSamples));
+        reportClosing();
+    }
+
+    private void bidderLoop(String token, long measureFrom, long deadline, LatencySamples bids,
+            LatencySamples browses) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            boolean browse = random.nextDouble() < browseRatio;
+            int auction = pickOpenAuction(now, random);
+            if (auction < 0) {
+                break; // Every auction has ended
+            }
+            long started = System.nanoTime();
+            if (browse) {
+                browse(token);
+            } else {
+                bid(token, auction, random);
+            }
+            if (started >= measureFrom) {
+                (browse ? browses : bids).add(System.nanoTime() - started);
+            }
+        }
+    }
+
+    private int pickOpenAuction(long now, ThreadLocalRandom random) {
+        int first = 0;
+        while (first < auctionCount && endNanos[first] <= now) {
+            first++; // End times are ascending
+        }
+        return first == auctionCount ? -1 : random.nextInt(first, auctionCount);
+    }
+
+    private void bid(String token, int auction, ThreadLocalRandom random) {
+        long amount = minNextBidCents.get(auction) + INCREMENT_CENTS * random.nextInt(3);
+        StringBuilder body = new StringBuilder()
+                .append("{\"itemId\":").append(itemIds.get(auction))
+                .append(",\"amount\":").append(BigDecimal.valueOf(amount, 2));
+        if (random.nextDouble() < proxyRatio) {
+            body.append(",\"maxProxyAmount\":")
+                    .append(BigDecimal.valueOf(amount + INCREMENT_CENTS * random.nextInt(1, 50), 2));
+        }
+        body.append('}');
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/bids"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        String outcome;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            outcome = bidOutcome(auction, response);
+            if (response.statusCode() == 200 && random.nextDouble() < retryRatio) {
+                // A client that timed out sends the same request again
+                HttpResponse<String> retry = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                retryOutcomes.computeIfAbsent(retry.body().equals(response.body()) ? "original response"
+                        : "different response", key -> new LongAdder()).increment();
+            }
+        } catch (IOException e) {
+            outcome = "I/O error: " + e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        bidOutcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    private String bidOutcome(int auction, HttpResponse<String> response) {
+        JsonNode json = readJson(response.body());
+        if (response.statusCode() == 200) {
+            if (json != null && json.hasNonNull("amount")) {
+                learnMinNextBid(auction, json.get("amount").decimalValue().movePointRight(2).longValue()
+                        + INCREMENT_CENTS);
+            }
+            return "accepted";
+        }
+        String error = json != null && json.hasNonNull("error") ? json.get("error").asText() : null;
+        if (error == null) {
+            return "HTTP " + response.statusCode();
+        }
+        if (error.startsWith("Bid must be at least ")) {
+            learnMinNextBid(auction, new BigDecimal(error.substring("Bid must be at least ".length()).trim())
+                    .movePointRight(2).longValue());
+            return "outbid";
+        }
+        if (error.contains("System busy")) {
+            return "System busy";
+        }
+        if (error.contains("ended") || error.contains("not active")) {
+            return "auction ended";
+        }
+        return error.length() > 60 ? error.substring(0, 60) + "..." : error;
+    }
+
+    private void learnMinNextBid(int auction, long cents) {
+        minNextBidCents.accumulateAndGet(auction, cents, Math::max);
+    }
+
+    private void browse(String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/items"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        String outcome;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            outcome = response.statusCode() == 200 ? "ok" : "HTTP " + response.statusCode();
+        } catch (IOException e) {
+            outcome = "I/O error: " + e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        browseOutcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Creates the seller, the bidders and one active auction per item, and
+     * returns a JWT for each bidder.
+     */
+    private List<String> seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode("loadtest");
+
+        User seller = userRepository.save(user("seller", UserRole.SELLER, passwordHash));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < bidders; i++) {
+            users.add(user("bidder-" + i, UserRole.BUYER, passwordHash));
+        }
+        userRepository.saveAll(users);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < auctionCount; i++) {
+            Item item = Item.builder()
+                    .seller(seller)
+                    .title("Load test lot " + i)
+                    .category("Coins")
+                    .saleType(SaleType.AUCTION)
+                    .status(ItemStatus.ACTIVE)
+                    .startingBid(STARTING_PRICE)
+                    .currentPrice(STARTING_PRICE)
+                    .build();
+            Auction auction = Auction.builder()
+                    .item(item)
+                    .status(AuctionStatus.ACTIVE)
+                    .startTime(now.minusMinutes(1))
+                    .endTime(now.plusYears(1)) // Replaced by scheduleEndTimes once the run starts
+                    .minBidIncrement(BigDecimal.valueOf(INCREMENT_CENTS, 2))
+                    .build();
+            item.setAuction(auction);
+            itemIds.add(itemRepository.save(item).getId());
+        }
+        endNanos = new long[auctionCount];
+        minNextBidCents = new AtomicLongArray(auctionCount);
+        for (int i = 0; i < auctionCount; i++) {
+            minNextBidCents.set(i, STARTING_PRICE.movePointRight(2).longValue() + INCREMENT_CENTS);
+        }
+        return users.stream().map(u -> jwtUtil.generateToken(u.getEmail(), u.getRole().name())).toList();
+    }
+
+    private void scheduleEndTimes(long startNanos) {
+        AuctionRepository auctionRepository = context.getBean(AuctionRepository.class);
+        LocalDateTime start = LocalDateTime.now();
+        List<Auction> auctions = new ArrayList<>();
+        for (int i = 0; i < auctionCount; i++) {
+            Auction auction = auctionRepository.findByItemId(itemIds.get(i)).orElseThrow();
+            auction.setEndTime(start.plusNanos(endNanos[i] - startNanos));
+            auctions.add(auction);
+        }
+        auctionRepository.saveAll(auctions);
+        AuctionCloseSchedule closeSchedule = context.getBean(AuctionCloseSchedule.class);
+        auctions.forEach(auction -> closeSchedule.schedule(auction.getId(), auction.getEndTime()));
+    }
+
+    private static User user(String name, UserRole role, String passwordHash) {
+        return User.builder()
+                .email(name + "@loadtest.local")
+                .username(name)
+                .passwordHash(passwordHash)
+                .role(role)
+                .build();
+    }
+
+    private void report(double measuredSeconds, LatencySamples bids, LatencySamples browses) {
+        System.out.println();
+        System.out.printf("%-8s %10s %10s %10s %10s %10s%n", "", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        printRow("bid", bids, measuredSeconds);
+        printRow("browse", browses, measuredSeconds);
+        System.out.println();
+        System.out.println("Bid outcomes (whole run): " + shares(bidOutcomes));
+        System.out.println("Browse outcomes (whole run): " + shares(browseOutcomes));
+        if (!retryOutcomes.isEmpty()) {
+            System.out.println("Retried accepted bids (same Idempotency-Key): " + shares(retryOutcomes));
+        }
+        List<LockContention.HotKey> hotLocks = context.getBean(LockContention.class).hottest(3);
+        if (!hotLocks.isEmpty()) {
+            StringBuilder line = new StringBuilder();
+            hotLocks.forEach(hot -> line.append(line.isEmpty() ? "" : ", ").append(String.format(
+                    "%s %d taken, %d failed, max wait %.0f ms", hot.key(), hot.acquisitions(), hot.failures(),
+                    hot.maxWaitMs())));
+            System.out.println("Hottest locks: " + line);
+        }
+    }
+
+    private static void printRow(String name, LatencySamples samples, double seconds) {
+        System.out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f%n", name, samples.size(), samples.size() / seconds,
+                samples.percentileMillis(50), samples.percentileMillis(99), samples.percentileMillis(99.9));
+    }
+
+    private static String shares(Map<String, LongAdder> outcomes) {
+        long total = outcomes.values().stream().mapToLong(LongAdder::sum).sum();
+        StringBuilder line = new StringBuilder();
+        new TreeMap<>(outcomes).forEach((outcome, count) -> line.append(line.isEmpty() ? "" : ", ")
+                .append(outcome).append(' ').append(String.format("%.2f%%", 100.0 * count.sum() / total)));
+        return total + " requests: " + line;
+    }
+
+    /**
+     * Waits for AuctionClosingScheduler to close every auction and reports how
+     * long after its end time each one was closed.
+     */
+    private void reportClosing() throws InterruptedException {
+        AuctionRepository auctionRepository = context.getBean(AuctionRepository.class);
+        long giveUp = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        List<Auction> auctions = auctionRepository.findAll();
+        while (auctions.stream().anyMatch(a -> a.getStatus() != AuctionStatus.CLOSED) && System.nanoTime() < giveUp) {
+            Thread.sleep(500);
+            auctions = auctionRepository.findAll();
+        }
+        LatencySamples closed = new LatencySamples();
+        auctions.stream()
+                .filter(a -> a.getClosedAt() != null)
+                .forEach(a -> closed.add(Math.max(0, Duration.between(a.getEndTime(), a.getClosedAt()).toNanos())));
+        LatencySamples lag = LatencySamples.merge(List.of(closed));
+        System.out.printf("Closing: %d/%d auctions closed, close lag p50 %.0f ms, max %.0f ms; %d orders, %d bids "
+                + "persisted%n", lag.size(), auctions.size(), lag.percentileMillis(50), lag.percentileMillis(100),
+                context.getBean(OrderRepository.class).count(), context.getBean(BidRepository.class).count());
+        System.out.println("Events published to the RabbitMQ stub: " + new TreeMap<>(
+                context.getBean(LoadTestConfiguration.CountingRabbitTemplate.class).getPublished()));
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return body == null || body.isBlank() ? null : objectMapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private <T> T setting(String name, Class<T> type) {
+        return environment.getRequiredProperty("loadtest." + name, type);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.marketplace.loadtest;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stands in for the RabbitMQ broker during the load test: domain events are
+ * counted per routing key instead of being sent.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfiguration {
+
+    @Bean
+    @Primary
+    public CountingRabbitTemplate countingRabbitTemplate(ConnectionFactory connectionFactory) {
+        return new CountingRabbitTemplate(connectionFactory);
+    }
+
+    public static class CountingRabbitTemplate extends RabbitTemplate {
+
+        private final Map<String, LongAdder> published = new ConcurrentHashMap<>();
+
+        CountingRabbitTemplate(ConnectionFactory connectionFactory) {
+            super(connectionFactory); // Never connected, nothing is sent
+        }
+
+        @Override
+        public void convertAndSend(String exchange, String routingKey, Object message) throws AmqpException {
+            published.computeIfAbsent(routingKey, key -> new LongAdder()).increment();
+        }
+
+        public Map<String, LongAdder> getPublished() {
+            return published;
+        }
+    }
+}
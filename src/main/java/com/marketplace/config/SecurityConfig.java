@@ -1,6 +1,7 @@
 package com.marketplace.config;
 
 import com.marketplace.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -40,10 +41,14 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**", "/api/items/browse", "/api/items/{id}",
+                        // Completing an async response (POST /api/bids) was authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/auth/**", "/api/items/browse", "/api/items/ending-soon", "/api/items/{id}",
                                 "/swagger-ui/**", "/api-docs/**", "/ws/**", "/error")
                         .permitAll()
                         .requestMatchers("/api/admin/**").hasAnyRole("ADMIN", "MODERATOR")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -1,5 +1,6 @@
 package com.marketplace.controller;
 
+import com.marketplace.engine.LockContention;
 import com.marketplace.entity.User;
 import com.marketplace.enums.FraudReportStatus;
 import com.marketplace.repository.UserRepository;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,6 +25,7 @@ public class AdminController {
 
     private final AdminService adminService;
     private final UserRepository userRepository;
+    private final LockContention lockContention;
 
     // ─── Dashboard ───────────────────────────────────────────────────
 
@@ -131,6 +134,22 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAuditLogs(entityType, page, size));
     }
 
+    // ─── Lock Contention ─────────────────────────────────────────────
+
+    @GetMapping("/locks/hot")
+    @Operation(summary = "Lock keys with the most time spent waiting for them, most recent windows")
+    public ResponseEntity<List<LockContention.HotKey>> getHotLocks(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(lockContention.hottest(limit));
+    }
+
+    // ─── Auction Close Lag ───────────────────────────────────────────
+
+    @GetMapping("/auctions/close-lag")
+    @Operation(summary = "Overdue auction backlog, most delayed recent closes, longest overdue auctions and catch-up progress")
+    public ResponseEntity<Map<String, Object>> getCloseLag(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(adminService.getCloseLag(limit));
+    }
+
     // ─── Helper ──────────────────────────────────────────────────────
 
     private User getAdminUser(org.springframework.security.core.userdetails.UserDetails userDetails) {
@@ -1,17 +1,27 @@
 package com.marketplace.controller;
 
-import com.marketplace.entity.Bid;
+import com.marketplace.dto.BatchBidRequest;
+import com.marketplace.dto.BatchBidResult;
+import com.marketplace.dto.BidResponse;
 import com.marketplace.repository.BidRepository;
 import com.marketplace.repository.UserRepository;
+import com.marketplace.service.BidIdempotencyService;
+import com.marketplace.service.BidRateLimiter;
 import com.marketplace.service.BidService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/bids")
@@ -19,13 +29,18 @@ import java.util.Map;
 public class BidController {
 
     private final BidService bidService;
+    private final BidIdempotencyService bidIdempotencyService;
+    private final BidRateLimiter bidRateLimiter;
     private final BidRepository bidRepository;
     private final UserRepository userRepository;
 
     @PostMapping
-    public ResponseEntity<?> placeBid(
+    public CompletableFuture<ResponseEntity<?>> placeBid(
             @RequestBody Map<String, Object> payload,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetails userDetails) {
+        // The request thread only queues the bid; the response is written when it completes
+        CompletableFuture<?> response;
         try {
             Long itemId = Long.valueOf(payload.get("itemId").toString());
             BigDecimal amount = new BigDecimal(payload.get("amount").toString());
@@ -35,8 +50,54 @@ public class BidController {
                 maxProxyAmount = new BigDecimal(payload.get("maxProxyAmount").toString());
             }
 
-            Bid bid = bidService.placeBid(itemId, amount, maxProxyAmount, userDetails.getUsername());
-            return ResponseEntity.ok(bid);
+            if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                // A retried request gets the original response instead of a second bid, and
+                // is not charged a rate limit token for it
+                BigDecimal max = maxProxyAmount;
+                return bidIdempotencyService.execute(userDetails.getUsername(), idempotencyKey,
+                        itemId + ":" + amount.stripTrailingZeros().toPlainString() + ":"
+                                + (max != null ? max.stripTrailingZeros().toPlainString() : ""),
+                        () -> {
+                            long retryAfterMs = bidRateLimiter.acquire(userDetails.getUsername(), itemId);
+                            if (retryAfterMs > 0) {
+                                throw new TooManyBidsException(retryAfterMs);
+                            }
+                            return bidService.placeBidAsync(itemId, amount, max, userDetails.getUsername())
+                                    .thenApply(bid -> BidResponse.from(bid, itemId));
+                        })
+                        .handle((body, error) -> error == null
+                                ? ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body)
+                                : badRequest(error));
+            }
+
+            long retryAfterMs = bidRateLimiter.acquire(userDetails.getUsername(), itemId);
+            if (retryAfterMs > 0) {
+                return CompletableFuture.completedFuture(tooManyBids(retryAfterMs));
+            }
+
+            response = bidService.placeBidAsync(itemId, amount, maxProxyAmount, userDetails.getUsername())
+                    .thenApply(bid -> BidResponse.from(bid, itemId));
+        } catch (Exception e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((body, error) -> error == null ? ResponseEntity.ok(body) : badRequest(error));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> placeBids(
+            @RequestBody BatchBidRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            // One token per entry, so a batch cannot place more bids than single requests could
+            List<Long> itemIds = request.getBids() != null
+                    ? request.getBids().stream().map(BatchBidRequest.Entry::getItemId).toList()
+                    : List.of();
+            long retryAfterMs = bidRateLimiter.acquireBatch(userDetails.getUsername(), itemIds);
+            if (retryAfterMs > 0) {
+                return tooManyBids(retryAfterMs);
+            }
+            List<BatchBidResult> results = bidService.placeBids(request.getBids(), userDetails.getUsername());
+            return ResponseEntity.ok(results);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -57,4 +118,28 @@ public class BidController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    private static ResponseEntity<?> tooManyBids(long retryAfterMs) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000))
+                .body(Map.of("error", "Too many bids, please slow down"));
+    }
+
+    private static ResponseEntity<?> badRequest(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TooManyBidsException tooMany) {
+            return tooManyBids(tooMany.retryAfterMs);
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(cause.getMessage())));
+    }
+
+    /** Rate limited bid of an idempotent request; failures are not cached, so a retry is charged again. */
+    private static class TooManyBidsException extends RuntimeException {
+        private final long retryAfterMs;
+
+        TooManyBidsException(long retryAfterMs) {
+            super("Too many bids, please slow down", null, false, false);
+            this.retryAfterMs = retryAfterMs;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.marketplace.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.engine.EndingSoonFeed;
 import com.marketplace.entity.Item;
 import com.marketplace.service.ItemService;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/items")
@@ -20,6 +22,7 @@ public class ItemController {
 
     private final ItemService itemService;
     private final ObjectMapper objectMapper;
+    private final EndingSoonFeed endingSoonFeed;
 
     @PostMapping
     public ResponseEntity<?> createItem(
@@ -41,6 +44,22 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getAllAvailableItems());
     }
 
+    /**
+     * Active auctions soonest to end, served from memory. Pass the returned
+     * {@code nextCursor} back as {@code cursor} for the next page.
+     */
+    @GetMapping("/ending-soon")
+    public ResponseEntity<?> getEndingSoon(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(endingSoonFeed.page(category, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Item> getItem(@PathVariable Long id) {
         return ResponseEntity.ok(itemService.getItemById(id));
@@ -0,0 +1,22 @@
+package com.marketplace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sent on {@code /topic/auction/{id}/extended} when a bid in the soft-close
+ * window moves the auction's end time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionExtension {
+    private Long auctionId;
+    private Long itemId;
+    private LocalDateTime endTime;
+}
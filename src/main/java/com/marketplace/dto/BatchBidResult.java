@@ -0,0 +1,24 @@
+package com.marketplace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a batch bid request, at the entry's position in the
+ * request. {@code bid} is the auction's leading bid after the entry, as
+ * returned by {@code POST /api/bids}; results are built on batch worker
+ * threads, so it carries ids only, never the entity's lazy associations.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBidResult {
+    private int index;
+    private Long itemId;
+    private boolean accepted;
+    private BidResponse bid;
+    private String error;
+}
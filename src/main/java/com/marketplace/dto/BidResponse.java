@@ -0,0 +1,47 @@
+package com.marketplace.dto;
+
+import com.marketplace.entity.Bid;
+import com.marketplace.enums.BidStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Response of {@code POST /api/bids}. Built from ids and values only, so it can
+ * be created on a bid worker thread without touching lazy associations; the
+ * item id is passed in because the bid's auction may be an uninitialized
+ * reference.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidResponse {
+    private Long id;
+    private Long auctionId;
+    private Long itemId;
+    private Long bidderId;
+    private BigDecimal amount;
+    private Boolean isProxyBid;
+    private Boolean isAutoBid;
+    private BidStatus status;
+    private LocalDateTime createdAt;
+
+    public static BidResponse from(Bid bid, Long itemId) {
+        return BidResponse.builder()
+                .id(bid.getId())
+                .auctionId(bid.getAuction().getId())
+                .itemId(itemId)
+                .bidderId(bid.getBidder().getId())
+                .amount(bid.getAmount())
+                .isProxyBid(bid.getIsProxyBid())
+                .isAutoBid(bid.getIsAutoBid())
+                .status(bid.getStatus())
+                .createdAt(bid.getCreatedAt())
+                .build();
+    }
+}
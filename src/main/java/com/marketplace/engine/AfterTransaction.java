@@ -0,0 +1,49 @@
+package com.marketplace.engine;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Defers updates of in-memory bidding state until the surrounding transaction
+ * has completed, so caches only ever reflect committed data.
+ */
+public final class AfterTransaction {
+
+    private AfterTransaction() {
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or right away when
+     * no transaction is active.
+     */
+    public static void onCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Passes the transaction's outcome ({@link TransactionSynchronization#STATUS_COMMITTED}
+     * and so on) to the callback once it completes. Does nothing without a transaction.
+     */
+    public static void onCompletion(IntConsumer callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status);
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Per-auction FIFO queues for asynchronous bids, drained by a bounded pool.
+ *
+ * Each auction's queue is drained by at most one pool thread at a time, so
+ * bids for the same auction run one after another and a burst on one auction
+ * occupies a single thread, whatever waiting (Redis lock, partition thread)
+ * the bid path does. Servlet threads only enqueue.
+ *
+ * A queue holding {@code bidding.async.max-queued-per-auction} bids rejects
+ * further bids with "System busy", the same answer a bid gets when it cannot
+ * take the auction lock in time.
+ */
+@Component
+public class AuctionBidQueues {
+
+    private static final int DRAIN_BATCH = 16;
+
+    private final ExecutorService executor;
+    private final Map<Long, AuctionQueue> queues = new ConcurrentHashMap<>();
+    private final int maxQueuedPerAuction;
+    private final Counter rejected;
+
+    private static final class AuctionQueue {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        // Queued plus running bids; whoever moves it from 0 to 1 schedules the drain,
+        // and the drain only stops once it is back to 0
+        private final AtomicInteger depth = new AtomicInteger();
+    }
+
+    public AuctionBidQueues(@Value("${bidding.async.threads:32}") int threads,
+            @Value("${bidding.async.max-queued-per-auction:64}") int maxQueuedPerAuction,
+            MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bid-async-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxQueuedPerAuction = maxQueuedPerAuction;
+        this.rejected = Counter.builder("bids.async.rejected")
+                .description("Bids rejected because their auction's queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a bid for the auction. The future fails with "System busy"
+     * right away if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Long auctionId, Supplier<T> task) {
+        AuctionQueue queue = queues.computeIfAbsent(auctionId, id -> new AuctionQueue());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        int depth;
+        do {
+            depth = queue.depth.get();
+            if (depth >= maxQueuedPerAuction) {
+                rejected.increment();
+                result.completeExceptionally(new RuntimeException("System busy, please try again"));
+                return result;
+            }
+        } while (!queue.depth.compareAndSet(depth, depth + 1));
+        queue.tasks.add(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (depth == 0) {
+            executor.execute(() -> drain(queue));
+        }
+        return result;
+    }
+
+    public void evict(Long auctionId) {
+        queues.remove(auctionId);
+    }
+
+    private void drain(AuctionQueue queue) {
+        for (int ran = 1; ; ran++) {
+            Runnable task;
+            while ((task = queue.tasks.poll()) == null) {
+                Thread.onSpinWait(); // Counted by a submitter that has not added it yet
+            }
+            task.run();
+            if (queue.depth.decrementAndGet() == 0) {
+                return;
+            }
+            if (ran == DRAIN_BATCH) {
+                // Let other auctions' queues have the thread, this one keeps its place in line
+                executor.execute(() -> drain(queue));
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,219 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Closes a backlog of overdue auctions, such as the ones that ended while
+ * every node was down, without holding up auctions that end meanwhile.
+ *
+ * The backlog is closed oldest first in chunks of
+ * {@code auction.catch-up.chunk-size} by up to
+ * {@code auction.catch-up.concurrency} threads of its own, so the closer
+ * thread stays free for auctions ending on time. Chunks are paced to at most
+ * {@code auction.catch-up.max-auctions-per-second} between them; a chunk that
+ * fails or takes longer than {@code auction.catch-up.max-chunk-ms} halves the
+ * pace, and each fast chunk gives back a sixteenth of the maximum. The
+ * concurrency should stay below the connection pool size.
+ *
+ * {@link #progress} and the {@code auctions.close.catch_up.remaining} gauge
+ * report how far the current run is, and the run is logged every
+ * {@code auction.catch-up.log-interval-ms}.
+ */
+@Component
+@Slf4j
+public class AuctionCloseCatchUp {
+
+    private final int concurrency;
+    private final int chunkSize;
+    private final double maxPerSecond;
+    private final long maxChunkNanos;
+    private final ExecutorService workers;
+
+    private final Deque<Long> pending = new ArrayDeque<>();
+    private final Set<Long> queued = new HashSet<>(); // Pending or being closed
+    private int runningWorkers;
+    private double allowedPerSecond;
+    private long nextChunkAt;
+    private LocalDateTime startedAt;
+    private long runStartedAt;
+    private long total;
+    private long processed;
+    private long lastLoggedAt;
+
+    @Value("${auction.catch-up.log-interval-ms:10000}")
+    private long logIntervalMs = 10000;
+
+    /**
+     * The current or last run: auctions handed to it, closed or found closed,
+     * the pace achieved and allowed, and the estimated seconds left.
+     */
+    public record Progress(boolean running, LocalDateTime startedAt, long total, long processed, long remaining,
+            double auctionsPerSecond, double allowedPerSecond, Long etaSeconds) {
+    }
+
+    public AuctionCloseCatchUp(@Value("${auction.catch-up.concurrency:4}") int concurrency,
+            @Value("${auction.catch-up.chunk-size:${auction.close-batch-size:100}}") int chunkSize,
+            @Value("${auction.catch-up.max-auctions-per-second:500}") double maxPerSecond,
+            @Value("${auction.catch-up.max-chunk-ms:2000}") long maxChunkMs,
+            MeterRegistry meterRegistry) {
+        this.concurrency = Math.max(1, concurrency);
+        this.chunkSize = chunkSize > 0 ? chunkSize : 100;
+        this.maxPerSecond = maxPerSecond;
+        this.maxChunkNanos = TimeUnit.MILLISECONDS.toNanos(maxChunkMs);
+        this.allowedPerSecond = maxPerSecond;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "auction-catch-up-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("auctions.close.catch_up.remaining", this, AuctionCloseCatchUp::remaining)
+                .description("Overdue auctions still to be closed by the catch-up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues overdue auctions, oldest first, to be closed by
+     * {@code closeChunk}, and starts a run if none is going. Auctions already
+     * queued are skipped. Returns how many were queued.
+     */
+    public int add(List<Long> overdueAuctionIds, Consumer<List<Long>> closeChunk) {
+        int added = 0;
+        int toStart;
+        synchronized (this) {
+            if (runningWorkers == 0 && pending.isEmpty()) {
+                startedAt = LocalDateTime.now();
+                runStartedAt = System.nanoTime();
+                lastLoggedAt = runStartedAt;
+                nextChunkAt = runStartedAt;
+                allowedPerSecond = maxPerSecond;
+                total = 0;
+                processed = 0;
+            }
+            for (Long auctionId : overdueAuctionIds) {
+                if (queued.add(auctionId)) {
+                    pending.addLast(auctionId);
+                    added++;
+                }
+            }
+            total += added;
+            int chunks = (pending.size() + chunkSize - 1) / chunkSize;
+            toStart = Math.max(0, Math.min(concurrency, chunks) - runningWorkers);
+            runningWorkers += toStart;
+        }
+        if (added > 0) {
+            log.info("Catching up on {} overdue auctions with {} threads at up to {} auctions/s", added,
+                    concurrency, maxPerSecond);
+        }
+        for (int i = 0; i < toStart; i++) {
+            workers.execute(() -> work(closeChunk));
+        }
+        return added;
+    }
+
+    public synchronized boolean isQueued(Long auctionId) {
+        return queued.contains(auctionId);
+    }
+
+    public synchronized Progress progress() {
+        long remaining = total - processed;
+        double elapsedSeconds = (System.nanoTime() - runStartedAt) / 1e9;
+        double achieved = processed > 0 && elapsedSeconds > 0 ? processed / elapsedSeconds : 0;
+        double pace = achieved > 0 ? achieved : allowedPerSecond;
+        Long eta = remaining == 0 ? Long.valueOf(0)
+                : pace > 0 ? Long.valueOf((long) Math.ceil(remaining / pace)) : null;
+        return new Progress(runningWorkers > 0 || !pending.isEmpty(), startedAt, total, processed, remaining,
+                achieved, allowedPerSecond, eta);
+    }
+
+    private synchronized long remaining() {
+        return total - processed;
+    }
+
+    private void work(Consumer<List<Long>> closeChunk) {
+        while (true) {
+            List<Long> chunk = new ArrayList<>(chunkSize);
+            long waitNanos;
+            synchronized (this) {
+                while (chunk.size() < chunkSize && !pending.isEmpty()) {
+                    chunk.add(pending.pollFirst());
+                }
+                if (chunk.isEmpty()) {
+                    if (--runningWorkers == 0) {
+                        log.info("Caught up on {} overdue auctions in {} s", processed,
+                                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - runStartedAt));
+                    }
+                    return;
+                }
+                long now = System.nanoTime();
+                long startAt = Math.max(now, nextChunkAt);
+                nextChunkAt = startAt + (long) (chunk.size() * 1e9 / allowedPerSecond);
+                waitNanos = startAt - now;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    runningWorkers--;
+                }
+                return; // Shutting down; the sweep finds the rest after a restart
+            }
+
+            long started = System.nanoTime();
+            boolean failed = false;
+            try {
+                closeChunk.accept(chunk);
+            } catch (RuntimeException e) {
+                log.error("Failed to close a catch-up chunk of {} auctions, retrying later", chunk.size(), e);
+                failed = true;
+            }
+            finished(chunk, System.nanoTime() - started, failed);
+        }
+    }
+
+    private synchronized void finished(List<Long> chunk, long elapsedNanos, boolean failed) {
+        if (failed) {
+            chunk.forEach(pending::addLast);
+        } else {
+            chunk.forEach(queued::remove);
+            processed += chunk.size();
+        }
+        if (failed || elapsedNanos > maxChunkNanos) {
+            allowedPerSecond = Math.max(maxPerSecond / 16, allowedPerSecond / 2);
+        } else {
+            allowedPerSecond = Math.min(maxPerSecond, allowedPerSecond + maxPerSecond / 16);
+        }
+
+        long now = System.nanoTime();
+        if (now - lastLoggedAt >= TimeUnit.MILLISECONDS.toNanos(logIntervalMs)) {
+            lastLoggedAt = now;
+            Progress progress = progress();
+            log.info("Catch-up closed {}/{} overdue auctions, {} auctions/s (allowed {}), about {} s left",
+                    progress.processed(), progress.total(), Math.round(progress.auctionsPerSecond()),
+                    Math.round(progress.allowedPerSecond()), progress.etaSeconds());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,114 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How late auctions close compared with their end time.
+ * <ul>
+ * <li>{@code auctions.close.lag} (timer): end time to {@code closedAt}, for
+ * every committed close</li>
+ * <li>{@code auctions.close.won_event} (timer): {@code closedAt} to the
+ * AuctionWonEvent reaching its after-commit listeners</li>
+ * <li>{@code auctions.close.backlog} (gauge): ACTIVE auctions past their end
+ * time, as last counted by the closing scheduler</li>
+ * </ul>
+ * The timers publish a percentile histogram and p50/p95/p99. The
+ * {@code auction.close-lag.worst-kept} most delayed closes are kept per window
+ * of {@code auction.close-lag.window-ms}; {@link #worst} ranks those of the
+ * current and the previous window.
+ */
+@Component
+public class AuctionCloseLag {
+
+    private static final Comparator<LateClose> BY_LAG = Comparator.comparingLong(LateClose::lagMs);
+
+    private final Timer lag;
+    private final Timer wonEvent;
+    private final AtomicLong backlog = new AtomicLong();
+
+    private volatile PriorityQueue<LateClose> current = new PriorityQueue<>(BY_LAG);
+    private volatile PriorityQueue<LateClose> previous = new PriorityQueue<>(BY_LAG);
+
+    @Value("${auction.close-lag.worst-kept:100}")
+    private int worstKept = 100;
+
+    public record LateClose(Long auctionId, LocalDateTime endTime, LocalDateTime closedAt, long lagMs) {
+    }
+
+    public AuctionCloseLag(MeterRegistry meterRegistry) {
+        this.lag = Timer.builder("auctions.close.lag")
+                .description("Time from an auction's end time to its close")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.wonEvent = Timer.builder("auctions.close.won_event")
+                .description("Time from an auction's close to its AuctionWonEvent being published")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("auctions.close.backlog", backlog, AtomicLong::get)
+                .description("Active auctions past their end time")
+                .register(meterRegistry);
+    }
+
+    /** A committed close of an auction that ended at {@code endTime}. */
+    public void closed(Long auctionId, LocalDateTime endTime, LocalDateTime closedAt) {
+        Duration late = Duration.between(endTime, closedAt);
+        if (late.isNegative()) {
+            late = Duration.ZERO;
+        }
+        lag.record(late);
+        LateClose close = new LateClose(auctionId, endTime, closedAt, late.toMillis());
+        PriorityQueue<LateClose> window = current;
+        synchronized (window) {
+            window.add(close);
+            if (window.size() > worstKept) {
+                window.poll(); // The least delayed
+            }
+        }
+    }
+
+    public void wonEventPublished(LocalDateTime closedAt) {
+        Duration elapsed = Duration.between(closedAt, LocalDateTime.now());
+        wonEvent.record(elapsed.isNegative() ? Duration.ZERO : elapsed);
+    }
+
+    public void setBacklog(long overdue) {
+        backlog.set(overdue);
+    }
+
+    public long getBacklog() {
+        return backlog.get();
+    }
+
+    /** The {@code limit} most delayed closes of the last one to two windows, most delayed first. */
+    public List<LateClose> worst(int limit) {
+        List<LateClose> all = new ArrayList<>();
+        for (PriorityQueue<LateClose> window : List.of(previous, current)) {
+            synchronized (window) {
+                all.addAll(window);
+            }
+        }
+        all.sort(BY_LAG.reversed());
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    @Scheduled(fixedRateString = "${auction.close-lag.window-ms:3600000}")
+    public void rollWindow() {
+        previous = current;
+        current = new PriorityQueue<>(BY_LAG);
+    }
+}
@@ -0,0 +1,109 @@
+package com.marketplace.engine;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Open auctions of this node ordered by end time, so the closer can sleep
+ * until the next one ends instead of polling the database.
+ *
+ * An auction has at most one entry; scheduling it again moves it, in
+ * O(log n), which is how end-time changes are applied. Entries are ordered in
+ * a skip list, so readers can walk the auctions ending soonest without
+ * taking the lock that writers and the closer share.
+ */
+@Component
+public class AuctionCloseSchedule {
+
+    private final ConcurrentSkipListSet<Due> due = new ConcurrentSkipListSet<>();
+    private final Map<Long, Due> byAuction = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition earlierEntry = lock.newCondition();
+
+    private record Due(long endsAt, long auctionId) implements Comparable<Due> {
+
+        @Override
+        public int compareTo(Due other) {
+            int byTime = Long.compare(endsAt, other.endsAt);
+            return byTime != 0 ? byTime : Long.compare(auctionId, other.auctionId);
+        }
+    }
+
+    /** Schedules the auction's close at {@code endTime}, replacing any earlier schedule. */
+    public void schedule(Long auctionId, LocalDateTime endTime) {
+        Due entry = new Due(toEpochMillis(endTime), auctionId);
+        lock.lock();
+        try {
+            Due previous = byAuction.put(auctionId, entry);
+            if (previous != null) {
+                due.remove(previous);
+            }
+            due.add(entry);
+            if (due.first() == entry) {
+                earlierEntry.signal(); // The closer is sleeping until a later end time
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(Long auctionId) {
+        lock.lock();
+        try {
+            Due entry = byAuction.remove(auctionId);
+            if (entry != null) {
+                due.remove(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the auctions whose end time has passed, waiting up
+     * to {@code maxWaitMs} for the first one. Returns an empty list if none
+     * ended in that time.
+     */
+    public List<Long> awaitDue(long maxWaitMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + maxWaitMs;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                List<Long> ended = new ArrayList<>();
+                while (!due.isEmpty() && due.first().endsAt() <= now) {
+                    Due entry = due.pollFirst();
+                    byAuction.remove(entry.auctionId());
+                    ended.add(entry.auctionId());
+                }
+                if (!ended.isEmpty() || now >= deadline) {
+                    return ended;
+                }
+                long wakeAt = due.isEmpty() ? deadline : Math.min(deadline, due.first().endsAt());
+                earlierEntry.await(wakeAt - now, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return due.size();
+    }
+
+    // Rounded up, so an auction is never handed out before its end time
+    private static long toEpochMillis(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return time.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lock-free snapshot of each auction's minimum next bid, keyed by item id (what
+ * bid requests carry), so bids that are already too low are rejected before any
+ * lock, Redis call or database access.
+ *
+ * Snapshots are only written from committed (or Redis-accepted) bids and only
+ * ever move up, so a snapshot can lag behind the auction but never reject a bid
+ * the auction itself would accept.
+ *
+ * The end time is only checked when soft close is off. A soft close can move
+ * it on any node, so with soft close on, a bid past this node's cached end
+ * time goes on to the full check against the auction itself.
+ */
+@Component
+public class AuctionPriceSnapshots {
+
+    public record Snapshot(Long auctionId, BigDecimal minNextBid, LocalDateTime endTime) {
+    }
+
+    private final Map<Long, Snapshot> byItemId = new ConcurrentHashMap<>();
+    private final Counter checked;
+    private final Counter rejectedBelowMinimum;
+    private final Counter rejectedEnded;
+    private final boolean checksEndTime;
+
+    public AuctionPriceSnapshots(MeterRegistry meterRegistry, SoftCloseRule softClose) {
+        this.checksEndTime = softClose.windowMillis() == 0;
+        this.checked = Counter.builder("bids.fastpath.checked")
+                .description("Bids checked against the cached price snapshot")
+                .register(meterRegistry);
+        this.rejectedBelowMinimum = Counter.builder("bids.fastpath.rejected")
+                .description("Bids rejected from the cached price snapshot")
+                .tag("reason", "below_minimum")
+                .register(meterRegistry);
+        this.rejectedEnded = Counter.builder("bids.fastpath.rejected")
+                .description("Bids rejected from the cached price snapshot")
+                .tag("reason", "ended")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Throws the same error the full bid path would for a bid that cannot win,
+     * and otherwise returns the item's snapshot (null if none is cached yet).
+     */
+    public Snapshot rejectIfStale(Long itemId, BigDecimal amount) {
+        checked.increment();
+        Snapshot snapshot = byItemId.get(itemId);
+        if (snapshot == null) {
+            return null;
+        }
+        if (checksEndTime && LocalDateTime.now().isAfter(snapshot.endTime())) {
+            rejectedEnded.increment();
+            throw new RuntimeException("Auction has ended");
+        }
+        if (amount.compareTo(snapshot.minNextBid()) < 0) {
+            rejectedBelowMinimum.increment();
+            throw new RuntimeException("Bid must be at least " + snapshot.minNextBid());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Records the state after an accepted bid. Out-of-order updates are harmless:
+     * the higher minimum and the later end time win.
+     */
+    public void record(Long itemId, Long auctionId, BigDecimal minNextBid, LocalDateTime endTime) {
+        byItemId.merge(itemId, new Snapshot(auctionId, minNextBid, endTime), (current, update) -> new Snapshot(
+                auctionId,
+                current.minNextBid().max(update.minNextBid()),
+                current.endTime().isAfter(update.endTime()) ? current.endTime() : update.endTime()));
+    }
+
+    public void evict(Long itemId) {
+        byItemId.remove(itemId);
+    }
+}
@@ -0,0 +1,111 @@
+package com.marketplace.engine;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Active proxy bids of one auction ranked by max amount (highest first, earliest
+ * proxy first on ties), with an index by bidder so a bidder's proxy can be
+ * raised in O(log n).
+ *
+ * Not thread-safe on its own: callers mutate a shared book only while holding
+ * the auction's lock or running on its partition thread. Lock-free callers
+ * mutate a {@link #copy()} instead.
+ */
+public class AuctionProxyBook {
+
+    public record Entry(Long bidderId, Money maxAmount, long sequence) {
+    }
+
+    /** Highest active proxy and the next one below it, both excluding a given bidder. */
+    public record Standing(Entry highest, Entry runnerUp) {
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator.comparing(Entry::maxAmount).reversed()
+            .thenComparingLong(Entry::sequence)
+            .thenComparing(Entry::bidderId);
+
+    private final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+    private final Map<Long, Entry> byBidder = new HashMap<>();
+    private long nextSequence;
+    private int syncedBidCount;
+
+    public AuctionProxyBook(int syncedBidCount) {
+        this.syncedBidCount = syncedBidCount;
+    }
+
+    /**
+     * Adds a bidder's proxy or raises its max. A raised proxy keeps its original
+     * position among equal max amounts, like the row it mirrors.
+     */
+    public void upsert(Long bidderId, Money maxAmount) {
+        Entry existing = byBidder.get(bidderId);
+        long sequence = existing != null ? existing.sequence() : nextSequence++;
+        if (existing != null) {
+            ranked.remove(existing);
+        }
+        Entry entry = new Entry(bidderId, maxAmount, sequence);
+        ranked.add(entry);
+        byBidder.put(bidderId, entry);
+    }
+
+    public void remove(Long bidderId) {
+        Entry existing = byBidder.remove(bidderId);
+        if (existing != null) {
+            ranked.remove(existing);
+        }
+    }
+
+    public Entry get(Long bidderId) {
+        return byBidder.get(bidderId);
+    }
+
+    /**
+     * Walks at most three entries from the top, so the answer costs O(log n)
+     * regardless of how many proxies the auction has.
+     */
+    public Standing standingExcluding(Long bidderId) {
+        Entry highest = null;
+        Iterator<Entry> it = ranked.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.bidderId().equals(bidderId)) {
+                continue;
+            }
+            if (highest == null) {
+                highest = entry;
+            } else {
+                return new Standing(highest, entry);
+            }
+        }
+        return new Standing(highest, null);
+    }
+
+    public Entry highestExcluding(Long bidderId) {
+        return standingExcluding(bidderId).highest();
+    }
+
+    public AuctionProxyBook copy() {
+        AuctionProxyBook copy = new AuctionProxyBook(syncedBidCount);
+        copy.ranked.addAll(ranked);
+        copy.byBidder.putAll(byBidder);
+        copy.nextSequence = nextSequence;
+        return copy;
+    }
+
+    public int size() {
+        return ranked.size();
+    }
+
+    /** Bid count of the auction this book was last known to match. */
+    public int syncedBidCount() {
+        return syncedBidCount;
+    }
+
+    public void markSynced(int bidCount) {
+        this.syncedBidCount = bidCount;
+    }
+}
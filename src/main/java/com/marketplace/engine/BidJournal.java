@@ -0,0 +1,449 @@
+package com.marketplace.engine;
+
+import com.marketplace.enums.BiddingMode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of accepted bids for {@code bidding.mode=JOURNAL}, written
+ * to memory-mapped segment files that roll over at a fixed size.
+ *
+ * Every record gets the next sequence number. A single flusher thread forces
+ * the active segment to disk and acknowledges every record written up to that
+ * point at once, so concurrent bids share one fsync. The background writer reads
+ * durable records after the checkpoint, persists them and then advances the
+ * checkpoint, which also deletes segments that are fully persisted.
+ *
+ * Record layout: payload length (int), sequence (long), CRC32 of the payload
+ * (int), payload. A zero length marks the unused tail of a segment.
+ */
+@Component
+@Slf4j
+public class BidJournal {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "bids-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    public record Record(long sequence, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingWrites = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long lastWritten;
+    private long lastDurable;
+    private volatile long checkpoint;
+    private boolean open;
+    private Thread flusher;
+
+    // Read cursor, only used by the single background writer
+    private Segment readSegment;
+    private int readPosition;
+    private long lastRead = -1;
+
+    @Value("${bidding.mode:LOCK}")
+    private BiddingMode biddingMode = BiddingMode.LOCK;
+
+    @Autowired
+    public BidJournal(@Value("${bidding.journal.dir:data/bid-journal}") String directory,
+            @Value("${bidding.journal.segment-size-mb:64}") int segmentSizeMb) {
+        this(Paths.get(directory), segmentSizeMb * 1024 * 1024);
+    }
+
+    public BidJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (biddingMode == BiddingMode.JOURNAL) {
+            open();
+        }
+    }
+
+    /**
+     * Maps the existing segments, finds the last intact record and starts the
+     * flusher. Records after the checkpoint are left for the writer to replay.
+     */
+    public void open() {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            checkpoint = readCheckpoint();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(BidJournal::isSegment).toList()) {
+                    Segment segment = mapSegment(file, baseSequenceOf(file));
+                    segments.put(segment.baseSequence, segment);
+                }
+            }
+            if (segments.isEmpty()) {
+                lastWritten = checkpoint;
+                active = createSegment(checkpoint + 1);
+            } else {
+                active = segments.lastEntry().getValue();
+                lastWritten = recover(active);
+            }
+            lastDurable = lastWritten;
+            open = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open bid journal in " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+
+        flusher = new Thread(this::flushLoop, "bid-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Bid journal opened in {} at sequence {} (checkpoint {})", directory, lastWritten, checkpoint);
+    }
+
+    /**
+     * Appends a record and returns its sequence number. The record is not
+     * durable until {@link #awaitDurable} returns for that sequence.
+     */
+    public long append(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + size + " bytes exceeds the segment size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            if (!open) {
+                throw new IllegalStateException("Bid journal is not open");
+            }
+            if (active.buffer.remaining() < size) {
+                roll();
+            }
+            long sequence = lastWritten + 1;
+            active.buffer.putInt(payload.length)
+                    .putLong(sequence)
+                    .putInt((int) crc.getValue())
+                    .put(payload);
+            lastWritten = sequence;
+            pendingWrites.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the given sequence has been forced to disk.
+     */
+    public void awaitDurable(long sequence, long timeoutMs) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        try {
+            while (lastDurable < sequence) {
+                if (remainingNanos <= 0) {
+                    throw new IllegalStateException("Timed out waiting for the bid journal");
+                }
+                remainingNanos = flushed.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the bid journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code max} durable records following the given sequence.
+     */
+    public List<Record> read(long afterSequence, int max) {
+        long limit;
+        lock.lock();
+        try {
+            limit = lastDurable;
+            if (afterSequence != lastRead || readSegment == null) {
+                seek(afterSequence);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        List<Record> records = new ArrayList<>();
+        while (records.size() < max && lastRead < limit) {
+            ByteBuffer buffer = readSegment.buffer;
+            int length = readPosition + HEADER_BYTES <= segmentBytes ? buffer.getInt(readPosition) : 0;
+            if (length == 0) {
+                // Rest of this segment is unused, the next record starts the following one
+                Segment next = nextSegment(readSegment);
+                if (next == null) {
+                    throw new IllegalStateException("Bid journal ends before sequence " + limit);
+                }
+                readSegment = next;
+                readPosition = 0;
+                continue;
+            }
+            long sequence = buffer.getLong(readPosition + Integer.BYTES);
+            if (sequence != lastRead + 1) {
+                throw new IllegalStateException("Bid journal is corrupt at sequence " + (lastRead + 1));
+            }
+            byte[] payload = new byte[length];
+            buffer.get(readPosition + HEADER_BYTES, payload);
+            records.add(new Record(sequence, payload));
+            readPosition += HEADER_BYTES + length;
+            lastRead = sequence;
+        }
+        return records;
+    }
+
+    public long lastCheckpoint() {
+        return checkpoint;
+    }
+
+    /** Sequence of the last record appended, durable or not. */
+    public long lastWritten() {
+        lock.lock();
+        try {
+            return lastWritten;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks every record up to the sequence as persisted elsewhere and deletes
+     * the segments that hold nothing newer.
+     */
+    public void checkpoint(long sequence) {
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII)));
+                channel.force(true);
+            }
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write bid journal checkpoint", e);
+        }
+        checkpoint = sequence;
+
+        lock.lock();
+        try {
+            while (segments.size() > 1 && segments.higherKey(segments.firstKey()) <= sequence + 1) {
+                Segment persisted = segments.pollFirstEntry().getValue();
+                persisted.close();
+                Files.deleteIfExists(persisted.path);
+            }
+        } catch (IOException e) {
+            log.warn("Cannot delete persisted bid journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (!open) {
+                return;
+            }
+            open = false;
+            pendingWrites.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            active.buffer.force();
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            Segment segment;
+            lock.lock();
+            try {
+                while (open && lastDurable == lastWritten) {
+                    pendingWrites.awaitUninterruptibly();
+                }
+                if (!open) {
+                    return;
+                }
+                target = lastWritten;
+                segment = active;
+            } finally {
+                lock.unlock();
+            }
+
+            // Outside the lock so appends continue while the disk catches up;
+            // they are picked up by the next round
+            segment.buffer.force();
+
+            lock.lock();
+            try {
+                lastDurable = Math.max(lastDurable, target);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void roll() {
+        active.buffer.force(); // Its tail may not have been flushed yet
+        try {
+            active = createSegment(lastWritten + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create bid journal segment", e);
+        }
+    }
+
+    private Segment createSegment(long baseSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX));
+        Segment segment = mapSegment(file, baseSequence);
+        segments.put(baseSequence, segment);
+        return segment;
+    }
+
+    private Segment mapSegment(Path file, long baseSequence) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        return new Segment(baseSequence, file, channel, buffer);
+    }
+
+    /**
+     * Scans the active segment up to the first missing, torn or out-of-order
+     * record and positions the segment after the last intact one.
+     */
+    private long recover(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        long expected = segment.baseSequence;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentBytes
+                    || buffer.getLong(position + Integer.BYTES) != expected) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES + Long.BYTES)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+            expected++;
+        }
+        buffer.position(position);
+        return expected - 1;
+    }
+
+    private void seek(long afterSequence) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(afterSequence + 1);
+        readSegment = entry != null ? entry.getValue() : segments.firstEntry().getValue();
+        readPosition = 0;
+        lastRead = readSegment.baseSequence - 1;
+        while (lastRead < afterSequence) {
+            int length = readSegment.buffer.getInt(readPosition);
+            if (length == 0) {
+                throw new IllegalStateException("Bid journal has no record after sequence " + afterSequence);
+            }
+            readPosition += HEADER_BYTES + length;
+            lastRead++;
+        }
+    }
+
+    private Segment nextSegment(Segment segment) {
+        lock.lock();
+        try {
+            Map.Entry<Long, Segment> next = segments.higherEntry(segment.baseSequence);
+            return next != null ? next.getValue() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        return Files.exists(file) ? Long.parseLong(Files.readString(file).trim()) : 0L;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long baseSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        private final long baseSequence;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long baseSequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.baseSequence = baseSequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Cannot close bid journal segment {}", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.marketplace.engine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring assigning close partitions to nodes. Each node is
+ * placed on the ring at several points, and a partition belongs to the first
+ * node point at or after the partition's hash. A node joining or leaving
+ * therefore moves only the partitions next to its own points.
+ */
+public final class CloseShardRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public CloseShardRing(Collection<String> nodes, int pointsPerNode) {
+        for (String node : nodes) {
+            for (int i = 0; i < pointsPerNode; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /** Returns the node owning the partition, or null if the ring has no nodes. */
+    public String owner(int partition) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash("partition:" + partition));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    /** Returns the partitions out of {@code 0..partitions-1} that {@code node} owns. */
+    public Set<Integer> ownedBy(String node, int partitions) {
+        Set<Integer> owned = new HashSet<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            if (node.equals(owner(partition))) {
+                owned.add(partition);
+            }
+        }
+        return owned;
+    }
+
+    /** The close partition of an auction. Matches {@code MOD(id, partitions)} in SQL for positive ids. */
+    public static int partitionOf(long auctionId, int partitions) {
+        return (int) Math.floorMod(auctionId, (long) partitions);
+    }
+
+    // FNV-1a, then the SplitMix64 finalizer so nearby strings spread over the ring
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,234 @@
+package com.marketplace.engine;
+
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.repository.AuctionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Active auctions ordered by end time, overall and per item category, so the
+ * "ending soon" feed is served from memory instead of sorting every active
+ * auction in MySQL.
+ *
+ * Listings are added when an auction is created, moved when a soft close
+ * extends it and removed when it closes. Changes made on other nodes are
+ * picked up by a refresh every {@code auction.ending-soon.refresh-ms}, which
+ * reloads the auctions updated since the last refresh and those ending within
+ * {@code auction.ending-soon.refresh-horizon-minutes}, where soft-close
+ * extensions happen. Pages skip auctions that have already ended, so a
+ * listing closed elsewhere is never served before the refresh drops it.
+ *
+ * Pages are keyed by a cursor of the last listing's end time and auction id,
+ * so a listing moving between two requests neither repeats nor shifts the
+ * rest of the page.
+ */
+@Component
+@Slf4j
+public class EndingSoonFeed {
+
+    // Allowance for other nodes' clocks when reading updated_at
+    private static final long CLOCK_SKEW_SECONDS = 30;
+
+    private final AuctionRepository auctionRepository;
+
+    private final NavigableMap<Key, Listing> all = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<Key, Listing>> byCategory = new ConcurrentHashMap<>();
+    private final Map<Long, Listing> byAuction = new ConcurrentHashMap<>();
+
+    @Value("${auction.ending-soon.refresh-horizon-minutes:60}")
+    private long refreshHorizonMinutes = 60;
+
+    @Value("${auction.ending-soon.max-page-size:100}")
+    private int maxPageSize = 100;
+
+    private volatile LocalDateTime lastRefresh;
+
+    public record Listing(Long auctionId, Long itemId, String title, String category, LocalDateTime endTime) {
+
+        private Key key() {
+            return new Key(toEpochMillis(endTime), auctionId);
+        }
+    }
+
+    /** A page of listings; {@code nextCursor} is null on the last page. */
+    public record Page(List<Listing> listings, String nextCursor) {
+    }
+
+    private record Key(long endsAt, long auctionId) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(endsAt, other.endsAt);
+            return byTime != 0 ? byTime : Long.compare(auctionId, other.auctionId);
+        }
+
+        private String toCursor() {
+            return endsAt + "_" + auctionId;
+        }
+
+        private static Key fromCursor(String cursor) {
+            int separator = cursor.indexOf('_');
+            try {
+                return new Key(Long.parseLong(cursor.substring(0, separator)),
+                        Long.parseLong(cursor.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    public EndingSoonFeed(AuctionRepository auctionRepository) {
+        this.auctionRepository = auctionRepository;
+    }
+
+    /** Adds the listing, or moves it if the auction is already listed. */
+    public void put(Listing listing) {
+        byAuction.compute(listing.auctionId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(listing);
+            return listing;
+        });
+    }
+
+    /** Moves a listed auction to its new end time; does nothing if it is not listed. */
+    public void extend(Long auctionId, LocalDateTime endTime) {
+        byAuction.computeIfPresent(auctionId, (id, listing) -> {
+            unindex(listing);
+            Listing moved = new Listing(auctionId, listing.itemId(), listing.title(), listing.category(), endTime);
+            index(moved);
+            return moved;
+        });
+    }
+
+    public void remove(Long auctionId) {
+        byAuction.computeIfPresent(auctionId, (id, listing) -> {
+            unindex(listing);
+            return null;
+        });
+    }
+
+    /**
+     * The listings after {@code cursor} (from the start if null) that have not
+     * ended yet, soonest first, optionally of one category.
+     */
+    public Page page(String category, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        NavigableMap<Key, Listing> index = category == null ? all : byCategory.get(category);
+        if (index == null) {
+            return new Page(List.of(), null);
+        }
+        Key notEnded = new Key(System.currentTimeMillis(), Long.MIN_VALUE);
+        Key from = notEnded;
+        if (cursor != null) {
+            Key after = Key.fromCursor(cursor);
+            if (after.compareTo(notEnded) > 0) {
+                from = after;
+            }
+        }
+
+        List<Listing> listings = new ArrayList<>(size);
+        Key last = null;
+        Iterator<Map.Entry<Key, Listing>> entries = index.tailMap(from, false).entrySet().iterator();
+        while (entries.hasNext() && listings.size() < size) {
+            Map.Entry<Key, Listing> entry = entries.next();
+            listings.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page(listings, entries.hasNext() && last != null ? last.toCursor() : null);
+    }
+
+    public int size() {
+        return byAuction.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Object[]> rows = auctionRepository.findActiveListings();
+        rows.forEach(row -> put(toListing(row)));
+        lastRefresh = startedAt;
+        log.info("Loaded {} active auctions into the ending-soon feed", rows.size());
+    }
+
+    /**
+     * Picks up auctions created, extended or closed on other nodes, and drops
+     * listings that ended without this node seeing the close.
+     */
+    @Scheduled(fixedDelayString = "${auction.ending-soon.refresh-ms:15000}")
+    public void refresh() {
+        LocalDateTime since = lastRefresh;
+        if (since == null) {
+            return; // Not loaded yet
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusMinutes(refreshHorizonMinutes);
+        Set<Long> active = new HashSet<>();
+        List<Object[]> rows = auctionRepository.findListingsEndingBeforeOrUpdatedSince(horizon,
+                since.minusSeconds(CLOCK_SKEW_SECONDS));
+        for (Object[] row : rows) {
+            Listing listing = toListing(row);
+            if (row[5] != AuctionStatus.ACTIVE) {
+                remove(listing.auctionId());
+                continue;
+            }
+            active.add(listing.auctionId());
+            Listing current = byAuction.get(listing.auctionId());
+            // End times only move later, so an older read never undoes a local extension
+            if (current == null || listing.endTime().isAfter(current.endTime())) {
+                put(listing);
+            }
+        }
+        // Listings ending within the horizon that are no longer active
+        Key end = new Key(toEpochMillis(horizon), Long.MIN_VALUE);
+        for (Listing listing : new ArrayList<>(all.headMap(end).values())) {
+            if (!active.contains(listing.auctionId())) {
+                remove(listing.auctionId());
+            }
+        }
+        lastRefresh = now;
+    }
+
+    private void index(Listing listing) {
+        all.put(listing.key(), listing);
+        if (listing.category() != null) {
+            byCategory.computeIfAbsent(listing.category(), c -> new ConcurrentSkipListMap<>())
+                    .put(listing.key(), listing);
+        }
+    }
+
+    private void unindex(Listing listing) {
+        all.remove(listing.key());
+        if (listing.category() != null) {
+            NavigableMap<Key, Listing> category = byCategory.get(listing.category());
+            if (category != null) {
+                category.remove(listing.key());
+            }
+        }
+    }
+
+    private static Listing toListing(Object[] row) {
+        return new Listing((Long) row[0], (Long) row[1], (String) row[2], (String) row[3], (LocalDateTime) row[4]);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,204 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How long threads wait for and hold named locks, and which keys they contend
+ * on most.
+ *
+ * Meters are tagged with the key's prefix ({@code auction} for
+ * {@code auction:42}), never the key itself:
+ * <ul>
+ * <li>{@code locks.wait} (timer, {@code outcome=acquired|timeout}): time in
+ * {@code acquireLockWithRetry}, local queue included</li>
+ * <li>{@code locks.held} (timer): acquisition to release</li>
+ * <li>{@code locks.failed} (counter, {@code reason=busy|timeout}): locks not
+ * taken, by {@code acquireLock} or by a timed-out wait</li>
+ * <li>{@code locks.attempts} (summary): tries against the lock store per
+ * waited-for acquisition, 1 = no retry</li>
+ * </ul>
+ * Per key, waits are summed over the current and the previous window of
+ * {@code bidding.lock.hot-keys.window-ms}; {@link #hottest} ranks keys by that
+ * total. At most {@code bidding.lock.hot-keys.max-keys} keys are tracked per
+ * window, later keys are left out until the window rolls over.
+ */
+@Component
+public class LockContention {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, PrefixMeters> meters = new ConcurrentHashMap<>();
+
+    private volatile Map<String, KeyStats> current = new ConcurrentHashMap<>();
+    private volatile Map<String, KeyStats> previous = Map.of();
+
+    @Value("${bidding.lock.hot-keys.max-keys:10000}")
+    private int maxKeys = 10000;
+
+    public record HotKey(String key, long acquisitions, long failures, double totalWaitMs, double maxWaitMs) {
+    }
+
+    private static final class KeyStats {
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+    }
+
+    private static final class PrefixMeters {
+        private final Timer acquiredWait;
+        private final Timer timedOutWait;
+        private final Timer held;
+        private final Counter busy;
+        private final Counter timedOut;
+        private final DistributionSummary attempts;
+
+        private PrefixMeters(String prefix, MeterRegistry registry) {
+            this.acquiredWait = waitTimer(prefix, "acquired", registry);
+            this.timedOutWait = waitTimer(prefix, "timeout", registry);
+            this.held = Timer.builder("locks.held")
+                    .description("Time from taking a lock to releasing it")
+                    .tag("prefix", prefix)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.busy = failedCounter(prefix, "busy", registry);
+            this.timedOut = failedCounter(prefix, "timeout", registry);
+            this.attempts = DistributionSummary.builder("locks.attempts")
+                    .description("Tries against the lock store per waited-for acquisition")
+                    .tag("prefix", prefix)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private static Timer waitTimer(String prefix, String outcome, MeterRegistry registry) {
+            return Timer.builder("locks.wait")
+                    .description("Time spent waiting for a lock")
+                    .tag("prefix", prefix)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private static Counter failedCounter(String prefix, String reason, MeterRegistry registry) {
+            return Counter.builder("locks.failed")
+                    .description("Locks that were not taken")
+                    .tag("prefix", prefix)
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+    }
+
+    public LockContention(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** A wait in {@code acquireLockWithRetry} that ended with the lock. */
+    public void acquired(String key, long waitNanos, int attempts) {
+        PrefixMeters prefixMeters = meters(key);
+        prefixMeters.acquiredWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        prefixMeters.attempts.record(attempts);
+        KeyStats stats = stats(key);
+        if (stats != null) {
+            stats.acquisitions.increment();
+            addWait(stats, waitNanos);
+        }
+    }
+
+    /** A wait in {@code acquireLockWithRetry} that gave up. */
+    public void timedOut(String key, long waitNanos, int attempts) {
+        PrefixMeters prefixMeters = meters(key);
+        prefixMeters.timedOutWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        prefixMeters.timedOut.increment();
+        prefixMeters.attempts.record(attempts);
+        KeyStats stats = stats(key);
+        if (stats != null) {
+            stats.failures.increment();
+            addWait(stats, waitNanos);
+        }
+    }
+
+    /** An {@code acquireLock} that found the lock taken. */
+    public void busy(String key) {
+        meters(key).busy.increment();
+        KeyStats stats = stats(key);
+        if (stats != null) {
+            stats.failures.increment();
+        }
+    }
+
+    public void released(String key, long heldNanos) {
+        meters(key).held.record(heldNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** The {@code limit} keys with the most time waited on them in the last one to two windows. */
+    public List<HotKey> hottest(int limit) {
+        Map<String, HotKey> merged = new HashMap<>();
+        for (Map<String, KeyStats> window : List.of(previous, current)) {
+            window.forEach((key, stats) -> merged.merge(key, toHotKey(key, stats), LockContention::sum));
+        }
+        Comparator<HotKey> order = Comparator.comparingDouble(HotKey::totalWaitMs)
+                .thenComparingLong(HotKey::failures);
+        PriorityQueue<HotKey> top = new PriorityQueue<>(order);
+        for (HotKey hotKey : merged.values()) {
+            top.add(hotKey);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<HotKey> hottest = new ArrayList<>(top);
+        hottest.sort(order.reversed());
+        return hottest;
+    }
+
+    @Scheduled(fixedRateString = "${bidding.lock.hot-keys.window-ms:60000}")
+    public void rollWindow() {
+        previous = current;
+        current = new ConcurrentHashMap<>();
+    }
+
+    private PrefixMeters meters(String key) {
+        int separator = key.indexOf(':');
+        String prefix = separator < 0 ? key : key.substring(0, separator);
+        return meters.computeIfAbsent(prefix, p -> new PrefixMeters(p, meterRegistry));
+    }
+
+    private KeyStats stats(String key) {
+        Map<String, KeyStats> window = current;
+        KeyStats stats = window.get(key);
+        if (stats == null && window.size() < maxKeys) {
+            stats = window.computeIfAbsent(key, k -> new KeyStats());
+        }
+        return stats;
+    }
+
+    private static void addWait(KeyStats stats, long waitNanos) {
+        stats.waitNanos.add(waitNanos);
+        stats.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private static HotKey toHotKey(String key, KeyStats stats) {
+        return new HotKey(key, stats.acquisitions.sum(), stats.failures.sum(),
+                stats.waitNanos.sum() / 1e6, stats.maxWaitNanos.get() / 1e6);
+    }
+
+    private static HotKey sum(HotKey a, HotKey b) {
+        return new HotKey(a.key(), a.acquisitions() + b.acquisitions(), a.failures() + b.failures(),
+                a.totalWaitMs() + b.totalWaitMs(), Math.max(a.maxWaitMs(), b.maxWaitMs()));
+    }
+}
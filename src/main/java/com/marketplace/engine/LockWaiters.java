@@ -0,0 +1,80 @@
+package com.marketplace.engine;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This node's threads waiting for a lock, in arrival order per key.
+ *
+ * Only the first waiter tries to take the lock, and a release wakes only it. A waiter stays at its place
+ * in line until it leaves, so one that is woken but loses the lock to another
+ * node waits for the next release without going to the back. A wake-up that
+ * arrives before the waiter parks is kept, so none is lost between its last
+ * attempt and parking.
+ */
+public class LockWaiters {
+
+    private final Map<String, Queue<Waiter>> waiting = new ConcurrentHashMap<>();
+
+    public static final class Waiter {
+        private final Semaphore wakeups = new Semaphore(0);
+
+        /**
+         * Parks until woken or the timeout passes.
+         *
+         * @return true if woken
+         */
+        public boolean await(long timeoutNanos) throws InterruptedException {
+            boolean woken = wakeups.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            wakeups.drainPermits(); // Several releases while awake count as one
+            return woken;
+        }
+    }
+
+    public Waiter join(String key) {
+        Waiter waiter = new Waiter();
+        waiting.compute(key, (k, queue) -> {
+            Queue<Waiter> line = queue != null ? queue : new ConcurrentLinkedQueue<>();
+            line.add(waiter);
+            return line;
+        });
+        return waiter;
+    }
+
+    /**
+     * Removes the waiter. One that gives up without the lock may have taken a
+     * wake-up meant for the lock's next owner, so it passes one on.
+     */
+    public void leave(String key, Waiter waiter, boolean acquired) {
+        waiting.computeIfPresent(key, (k, line) -> {
+            line.remove(waiter);
+            return line.isEmpty() ? null : line;
+        });
+        if (!acquired) {
+            wakeNext(key);
+        }
+    }
+
+    public boolean isEmpty(String key) {
+        return !waiting.containsKey(key);
+    }
+
+    /** Whether {@code waiter} is next in line; only the first waiter tries to take the lock. */
+    public boolean isFirst(String key, Waiter waiter) {
+        Queue<Waiter> line = waiting.get(key);
+        return line != null && line.peek() == waiter;
+    }
+
+    /** Called when the lock for {@code key} was released. */
+    public void wakeNext(String key) {
+        Queue<Waiter> line = waiting.get(key);
+        Waiter next = line != null ? line.peek() : null;
+        if (next != null) {
+            next.wakeups.release();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.marketplace.engine;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+
+/**
+ * Amount of money as a whole number of cents, used by the in-memory bid and
+ * proxy engine instead of BigDecimal. Instances are a single long and never
+ * escape the bid path, so the JIT can usually keep them in registers.
+ *
+ * Entities keep BigDecimal columns; conversion happens once at the edge and is
+ * exact in both directions ({@link #of} rejects amounts with fractions of a
+ * cent instead of rounding them).
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        try {
+            // Stays on BigDecimal's compact long representation, unlike setScale/unscaledValue
+            return new Money(amount.movePointRight(2).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(amount.stripTrailingZeros().scale() > 2
+                    ? "Amount must have at most two decimal places: " + amount
+                    : "Amount is out of range: " + amount);
+        }
+    }
+
+    /** Null-safe variant for optional amounts such as a reserve price. */
+    public static Money ofNullable(BigDecimal amount) {
+        return amount != null ? of(amount) : null;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money min(Money other) {
+        return cents <= other.cents ? this : other;
+    }
+
+    public Money max(Money other) {
+        return cents >= other.cents ? this : other;
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /** Same text as the BigDecimal amount, e.g. {@code 130.00}. */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.marketplace.engine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer bid engine. Every auction is owned by exactly one partition
+ * thread (auction id hash mod partition count), so bids for the same auction
+ * are applied one after another in arrival order without any distributed lock.
+ *
+ * Ownership is per JVM: with several nodes, bids for an auction must be routed
+ * to the same node (or the LOCK mode used) to keep the single-writer guarantee.
+ */
+@Component
+@Slf4j
+public class PartitionedBidEngine {
+
+    private final ExecutorService[] partitions;
+
+    public PartitionedBidEngine(@Value("${bidding.partitions:0}") int partitionCount) {
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        this.partitions = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            String threadName = "bid-partition-" + i;
+            partitions[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        log.info("Partitioned bid engine started with {} partitions", count);
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    public int partitionOf(Long auctionId) {
+        return Math.floorMod(Long.hashCode(auctionId), partitions.length);
+    }
+
+    /**
+     * Queues a task on the partition that owns the auction.
+     */
+    public <T> CompletableFuture<T> submit(Long auctionId, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, partitions[partitionOf(auctionId)]);
+    }
+
+    /**
+     * Queues a task on the owning partition and waits for its result, rethrowing
+     * the task's own exception so callers see the same errors as a direct call.
+     */
+    public <T> T execute(Long auctionId, Supplier<T> task) {
+        try {
+            return submit(auctionId, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService partition : partitions) {
+            partition.shutdown();
+        }
+        for (ExecutorService partition : partitions) {
+            try {
+                if (!partition.awaitTermination(5, TimeUnit.SECONDS)) {
+                    partition.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                partition.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.marketplace.engine;
+
+import com.marketplace.entity.Auction;
+import com.marketplace.entity.ProxyBid;
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.repository.AuctionRepository;
+import com.marketplace.repository.ProxyBidRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-auction {@link AuctionProxyBook} cache, so a bid no longer reloads and
+ * scans every active proxy of its auction.
+ *
+ * A book is trusted only while its synced bid count matches the auction row:
+ * every accepted bid increments {@code bidCount}, so a bid committed by another
+ * node (or a book that missed an update) shows up as a mismatch and the book is
+ * rebuilt from the {@code proxy_bids} rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProxyBidBooks {
+
+    private final ProxyBidRepository proxyBidRepository;
+    private final AuctionRepository auctionRepository;
+    private final Map<Long, AuctionProxyBook> books = new ConcurrentHashMap<>();
+
+    @Value("${bidding.proxy-book.warm-on-startup:true}")
+    private boolean warmOnStartup;
+
+    /**
+     * Returns the auction's shared book for a bid running under the auction's
+     * lock or on its partition thread. The book is dropped if the surrounding
+     * transaction rolls back, since changes applied to it were never persisted.
+     */
+    public AuctionProxyBook forUpdate(Auction auction) {
+        AuctionProxyBook book = forAuction(auction);
+        AfterTransaction.onCompletion(status -> {
+            if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                books.remove(auction.getId());
+            }
+        });
+        return book;
+    }
+
+    /**
+     * Returns a private copy of the auction's book for a bid that may run
+     * concurrently with others on the same auction. The copy replaces the shared
+     * book only if its transaction commits, and only if it is newer.
+     */
+    public AuctionProxyBook forIsolatedUpdate(Auction auction) {
+        AuctionProxyBook copy = forAuction(auction).copy();
+        AfterTransaction.onCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                books.merge(auction.getId(), copy,
+                        (current, updated) -> updated.syncedBidCount() > current.syncedBidCount() ? updated : current);
+            }
+        });
+        return copy;
+    }
+
+    private AuctionProxyBook forAuction(Auction auction) {
+        AuctionProxyBook book = books.get(auction.getId());
+        if (book == null || book.syncedBidCount() != auction.getBidCount()) {
+            book = load(auction.getId(), auction.getBidCount());
+            books.put(auction.getId(), book);
+        }
+        return book;
+    }
+
+    public void evict(Long auctionId) {
+        books.remove(auctionId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmOnStartup) {
+            return;
+        }
+        List<Auction> activeAuctions = auctionRepository.findByStatus(AuctionStatus.ACTIVE);
+        for (Auction auction : activeAuctions) {
+            books.put(auction.getId(), load(auction.getId(), auction.getBidCount()));
+        }
+        log.info("Loaded proxy bid books for {} active auctions", activeAuctions.size());
+    }
+
+    /**
+     * Reads an auction's active proxies into a new book, bypassing the cache.
+     */
+    public AuctionProxyBook load(Long auctionId, int bidCount) {
+        AuctionProxyBook book = new AuctionProxyBook(bidCount);
+        proxyBidRepository.findByAuctionIdAndIsActiveTrue(auctionId).stream()
+                // Oldest proxy first so it keeps priority on equal max amounts
+                .sorted(Comparator.comparing(ProxyBid::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(pb -> book.upsert(pb.getBidder().getId(), Money.of(pb.getMaxAmount())));
+        return book;
+    }
+}
@@ -0,0 +1,57 @@
+package com.marketplace.engine;
+
+/**
+ * The proxy bidding rules, shared by every bid mode that resolves bids in
+ * Java: given an auction's proxy book and an incoming bid that already passed
+ * the minimum bid check, decides who leads and at what price. Pure; the
+ * callers record the bids and apply the proxy change.
+ *
+ * <ul>
+ * <li>No other active proxy: the bid stands at its own amount.</li>
+ * <li>The bidder's max beats the best other proxy: the bidder wins with an
+ * auto-bid at that proxy's max plus the increment, capped at the bidder's
+ * max.</li>
+ * <li>Otherwise the other proxy holds: the incoming bid is recorded at its
+ * amount, and the proxy auto-bids the increment above it, capped at its
+ * max.</li>
+ * </ul>
+ */
+public final class ProxyBidResolver {
+
+    public enum Outcome {
+        UNCONTESTED, OUTBIDS_PROXY, PROXY_HOLDS
+    }
+
+    /**
+     * {@code winnerId} and {@code amount} are the leading bid after the
+     * incoming one, with its auto and proxy flags. {@code raisesProxy} tells
+     * whether the bidder's proxy has to be created or raised to
+     * {@code effectiveMax}.
+     */
+    public record Resolution(Outcome outcome, Long winnerId, Money amount, boolean autoBid, boolean proxyBid,
+            Money effectiveMax, boolean raisesProxy) {
+    }
+
+    private ProxyBidResolver() {
+    }
+
+    public static Resolution resolve(AuctionProxyBook proxies, Long bidderId, Money amount, Money maxProxyAmount,
+            Money increment) {
+        Money effectiveMax = maxProxyAmount != null && maxProxyAmount.isGreaterThan(amount) ? maxProxyAmount : amount;
+        AuctionProxyBook.Entry own = proxies.get(bidderId);
+        boolean raisesProxy = own == null || effectiveMax.isGreaterThan(own.maxAmount());
+
+        AuctionProxyBook.Entry opponent = proxies.highestExcluding(bidderId);
+        if (opponent == null) {
+            return new Resolution(Outcome.UNCONTESTED, bidderId, amount, false, false, effectiveMax, raisesProxy);
+        }
+        if (effectiveMax.isGreaterThan(opponent.maxAmount())) {
+            Money priceToWin = opponent.maxAmount().plus(increment).min(effectiveMax);
+            return new Resolution(Outcome.OUTBIDS_PROXY, bidderId, priceToWin, true, maxProxyAmount != null,
+                    effectiveMax, raisesProxy);
+        }
+        Money priceToBeat = amount.plus(increment).min(opponent.maxAmount());
+        return new Resolution(Outcome.PROXY_HOLDS, opponent.bidderId(), priceToBeat, true, true, effectiveMax,
+                raisesProxy);
+    }
+}
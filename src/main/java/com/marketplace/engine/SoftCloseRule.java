@@ -0,0 +1,43 @@
+package com.marketplace.engine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Anti-sniping soft close: a bid in the last {@code auction.soft-close.window-seconds}
+ * of an auction moves its end time to {@code auction.soft-close.extension-seconds}
+ * after the bid, so the other bidders always get that long to answer. A window
+ * of 0 turns it off.
+ */
+@Component
+public class SoftCloseRule {
+
+    private final Duration window;
+    private final Duration extension;
+
+    public SoftCloseRule(@Value("${auction.soft-close.window-seconds:0}") long windowSeconds,
+            @Value("${auction.soft-close.extension-seconds:60}") long extensionSeconds) {
+        this.window = Duration.ofSeconds(Math.max(0, windowSeconds));
+        this.extension = Duration.ofSeconds(Math.max(0, extensionSeconds));
+    }
+
+    /** The auction's end time after a bid accepted at {@code now}; {@code endTime} itself if not extended. */
+    public LocalDateTime endTimeAfterBid(LocalDateTime endTime, LocalDateTime now) {
+        if (window.isZero() || now.plus(window).isBefore(endTime)) {
+            return endTime;
+        }
+        LocalDateTime extended = now.plus(extension);
+        return extended.isAfter(endTime) ? extended : endTime;
+    }
+
+    public long windowMillis() {
+        return window.toMillis();
+    }
+
+    public long extensionMillis() {
+        return extension.toMillis();
+    }
+}
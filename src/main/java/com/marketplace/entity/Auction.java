@@ -1,5 +1,7 @@
 package com.marketplace.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.marketplace.enums.AuctionStatus;
 import jakarta.persistence.*;
 import lombok.*;
@@ -18,6 +20,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Auction {
 
     @Id
@@ -26,6 +29,7 @@ public class Auction {
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false, unique = true)
+    @JsonIgnoreProperties("auction")
     private Item item;
 
     @Column(name = "start_time", nullable = false)
@@ -60,6 +64,14 @@ public class Auction {
     @Column(name = "closed_at")
     private LocalDateTime closedAt;
 
+    // Fencing token of the closing lock holder that claimed this auction
+    @Column(name = "close_fence")
+    private Long closeFence;
+
+    // Claim of the batch close that moved this auction to CLOSING
+    @Column(name = "close_claim")
+    private Long closeClaim;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -71,10 +83,12 @@ public class Auction {
     // Relationships
     @OneToMany(mappedBy = "auction", cascade = CascadeType.ALL)
     @OrderBy("createdAt DESC")
+    @JsonIgnore
     @Builder.Default
     private List<Bid> bids = new ArrayList<>();
 
     @OneToMany(mappedBy = "auction", cascade = CascadeType.ALL)
+    @JsonIgnore
     @Builder.Default
     private List<ProxyBid> proxyBids = new ArrayList<>();
 }
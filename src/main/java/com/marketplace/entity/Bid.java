@@ -48,4 +48,8 @@ public class Bid {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    // Set on bids persisted by AcceptedBidWriter, so a re-delivered batch is not inserted twice
+    @Column(name = "accepted_ref", unique = true, length = 64, updatable = false)
+    private String acceptedRef;
 }
@@ -1,5 +1,7 @@
 package com.marketplace.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.marketplace.enums.ItemStatus;
 import com.marketplace.enums.SaleType;
 import jakarta.persistence.*;
@@ -19,6 +21,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Item {
 
     @Id
@@ -102,6 +105,7 @@ public class Item {
     private List<Certificate> certificates = new ArrayList<>();
 
     @OneToMany(mappedBy = "item", cascade = CascadeType.ALL)
+    @JsonIgnore
     @Builder.Default
     private List<Watchlist> watchers = new ArrayList<>();
 }
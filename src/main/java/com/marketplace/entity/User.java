@@ -1,5 +1,7 @@
 package com.marketplace.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.marketplace.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
@@ -17,6 +19,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class User {
 
     @Id
@@ -70,18 +73,22 @@ public class User {
 
     // Relationships
     @OneToMany(mappedBy = "seller", cascade = CascadeType.ALL)
+    @JsonIgnore
     @Builder.Default
     private List<Item> sellingItems = new ArrayList<>();
 
     @OneToMany(mappedBy = "bidder", cascade = CascadeType.ALL)
+    @JsonIgnore
     @Builder.Default
     private List<Bid> bids = new ArrayList<>();
 
     @OneToMany(mappedBy = "buyer", cascade = CascadeType.ALL)
+    @JsonIgnore
     @Builder.Default
     private List<Order> purchases = new ArrayList<>();
 
     @OneToMany(mappedBy = "seller", cascade = CascadeType.ALL)
+    @JsonIgnore
     @Builder.Default
     private List<Order> sales = new ArrayList<>();
 }
@@ -3,6 +3,7 @@ package com.marketplace.enums;
 public enum AuctionStatus {
     SCHEDULED,
     ACTIVE,
+    CLOSING, // Claimed by a batch close that has not committed yet
     CLOSED,
     CANCELLED
 }
@@ -0,0 +1,9 @@
+package com.marketplace.enums;
+
+public enum BiddingMode {
+    LOCK,
+    PARTITIONED,
+    REDIS_SCRIPT,
+    OPTIMISTIC,
+    JOURNAL
+}
@@ -0,0 +1,6 @@
+package com.marketplace.enums;
+
+public enum CloseCoordination {
+    ALL_NODES, // Every node scans and races for every auction
+    SHARDED // Nodes split the auctions between them through Redis
+}
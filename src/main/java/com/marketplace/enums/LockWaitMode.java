@@ -0,0 +1,6 @@
+package com.marketplace.enums;
+
+public enum LockWaitMode {
+    POLL,
+    PUBSUB
+}
@@ -1,13 +1,19 @@
 package com.marketplace.repository;
 
 import com.marketplace.entity.Auction;
+import com.marketplace.entity.User;
 import com.marketplace.enums.AuctionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,13 +21,77 @@ import java.util.Optional;
 public interface AuctionRepository extends JpaRepository<Auction, Long> {
     Optional<Auction> findByItemId(Long itemId);
 
+    @Query("SELECT a.id FROM Auction a WHERE a.item.id = :itemId")
+    Optional<Long> findIdByItemId(@Param("itemId") Long itemId);
+
     List<Auction> findByStatus(AuctionStatus status);
 
-    @Query("SELECT a FROM Auction a WHERE a.status = 'ACTIVE' AND a.endTime < :now")
-    List<Auction> findExpiredAuctions(@Param("now") LocalDateTime now);
+    /** Loads the auction and locks its row until the transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Auction a WHERE a.id = :id")
+    Optional<Auction> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Records a new highest bid only if the auction's highest bid is still
+     * {@code expectedHighestBidId} (0 for none) and the auction is still open.
+     * {@code endTime} is the end time after the bid, moved by a soft close.
+     * Returns the number of rows updated: 0 means another bid got there first.
+     */
+    @Modifying
+    @Query("UPDATE Auction a SET a.highestBidId = :newHighestBidId, a.bidCount = a.bidCount + 1, " +
+            "a.winner = :leader, a.status = com.marketplace.enums.AuctionStatus.ACTIVE, a.endTime = :endTime, " +
+            "a.updatedAt = :now " +
+            "WHERE a.id = :id AND COALESCE(a.highestBidId, 0) = :expectedHighestBidId " +
+            "AND (a.status = com.marketplace.enums.AuctionStatus.ACTIVE " +
+            "OR (a.status = com.marketplace.enums.AuctionStatus.SCHEDULED AND a.startTime < :now)) " +
+            "AND a.endTime > :now")
+    int compareAndSetHighestBid(@Param("id") Long id,
+            @Param("expectedHighestBidId") Long expectedHighestBidId,
+            @Param("newHighestBidId") Long newHighestBidId,
+            @Param("leader") User leader,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Records the closing lock's fencing token on an active auction, unless a
+     * holder with a larger token got there first.
+     */
+    @Modifying
+    @Query("UPDATE Auction a SET a.closeFence = :fence WHERE a.id = :id " +
+            "AND a.status = com.marketplace.enums.AuctionStatus.ACTIVE AND COALESCE(a.closeFence, 0) < :fence")
+    int claimForClosing(@Param("id") Long id, @Param("fence") long fence);
+
+    @Query("SELECT a FROM Auction a WHERE a.status = 'ACTIVE' AND a.endTime < :time")
+    List<Auction> findActiveAuctionsEndingBefore(@Param("time") LocalDateTime time);
+
+    /** Active auctions whose id falls in one of {@code owned} out of {@code partitions} close partitions. */
+    @Query("SELECT a FROM Auction a WHERE a.status = 'ACTIVE' AND MOD(a.id, :partitions) IN :owned")
+    List<Auction> findActiveAuctionsInPartitions(@Param("partitions") long partitions,
+            @Param("owned") Collection<Long> owned);
+
+    @Query("SELECT a FROM Auction a WHERE a.status = 'ACTIVE' AND a.endTime < :time " +
+            "AND MOD(a.id, :partitions) IN :owned")
+    List<Auction> findActiveAuctionsEndingBeforeInPartitions(@Param("time") LocalDateTime time,
+            @Param("partitions") long partitions, @Param("owned") Collection<Long> owned);
 
     @Query("SELECT a FROM Auction a WHERE a.status = 'ACTIVE' ORDER BY a.endTime ASC")
     List<Auction> findActiveAuctionsEndingSoon();
 
+    /** Rows of auction id, item id, title, category, end time and status for the ending-soon feed. */
+    @Query("SELECT a.id, i.id, i.title, i.category, a.endTime, a.status FROM Auction a JOIN a.item i " +
+            "WHERE a.status = 'ACTIVE'")
+    List<Object[]> findActiveListings();
+
+    /** Feed rows of active auctions ending before {@code time} and of any auction updated since {@code since}. */
+    @Query("SELECT a.id, i.id, i.title, i.category, a.endTime, a.status FROM Auction a JOIN a.item i " +
+            "WHERE (a.status = 'ACTIVE' AND a.endTime < :time) OR a.updatedAt >= :since")
+    List<Object[]> findListingsEndingBeforeOrUpdatedSince(@Param("time") LocalDateTime time,
+            @Param("since") LocalDateTime since);
+
     Long countByStatus(AuctionStatus status);
+
+    long countByStatusAndEndTimeBefore(AuctionStatus status, LocalDateTime time);
+
+    List<Auction> findByStatusAndEndTimeBeforeOrderByEndTimeAsc(AuctionStatus status, LocalDateTime time,
+            Pageable pageable);
 }
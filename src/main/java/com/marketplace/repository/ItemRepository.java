@@ -5,6 +5,7 @@ import com.marketplace.entity.User;
 import com.marketplace.enums.ItemStatus;
 import com.marketplace.enums.SaleType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -46,6 +47,10 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
                         @Param("verifiedOnly") Boolean verifiedOnly,
                         org.springframework.data.domain.Pageable pageable);
 
+        @Modifying
+        @Query("UPDATE Item i SET i.currentPrice = :price, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id")
+        int updateCurrentPrice(@Param("id") Long id, @Param("price") BigDecimal price);
+
         @Query("SELECT DISTINCT i.category FROM Item i WHERE i.status = 'ACTIVE' ORDER BY i.category")
         List<String> findDistinctCategories();
 }
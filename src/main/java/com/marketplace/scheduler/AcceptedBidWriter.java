@@ -0,0 +1,307 @@
+package com.marketplace.scheduler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.engine.BidJournal;
+import com.marketplace.enums.BidStatus;
+import com.marketplace.enums.BiddingMode;
+import com.marketplace.service.LockService;
+import com.marketplace.service.RedisBidService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persists bids accepted by the Redis bid script ({@code bidding.mode=REDIS_SCRIPT})
+ * or recorded in the local bid journal ({@code bidding.mode=JOURNAL}) to the
+ * {@code bids}, {@code proxy_bids}, {@code auctions} and {@code items} tables in
+ * JDBC batches.
+ *
+ * Outcomes are read from the head of the queue (or after the journal checkpoint)
+ * and trimmed only after the batch commits, and a Redis lock keeps a single
+ * writer across nodes, so a crash re-delivers a batch instead of losing it.
+ * Re-delivery is safe: bid rows carry the accepted bid's sequence under a
+ * unique key, so rows already inserted are skipped, and the other tables are
+ * set to absolute values.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AcceptedBidWriter {
+
+    private static final String WRITER_LOCK_KEY = "accepted_bid_writer";
+    private static final long WRITER_LOCK_TIMEOUT_MS = 30000;
+    private static final long WRITER_LOCK_LEASE_MS = 5000; // Renewed while a drain is still running
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LockService lockService;
+    private final ObjectMapper objectMapper;
+    private final BidJournal bidJournal;
+
+    @Value("${bidding.mode:LOCK}")
+    private BiddingMode biddingMode = BiddingMode.LOCK;
+
+    @Value("${bidding.redis.writer-batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${bidding.journal.durable-timeout-ms:2000}")
+    private long durableTimeoutMs = 2000;
+
+    /**
+     * One accepted bid as queued by accept_bid.lua or journaled; amounts are in
+     * cents, times in epoch ms. {@code endTime} is the auction's end time after
+     * the bid, null in records written before soft close existed.
+     * {@code sequence} numbers the bids queued in Redis; journaled bids take
+     * their journal sequence when read, as the record does not hold it.
+     */
+    public record AcceptedBid(Long auctionId, Long itemId, long acceptedAt, List<BidRow> bids, ProxyRow proxy,
+            long price, int bidCount, Long leaderId, Long endTime, Long sequence) {
+
+        AcceptedBid withSequence(long sequence) {
+            return new AcceptedBid(auctionId, itemId, acceptedAt, bids, proxy, price, bidCount, leaderId, endTime,
+                    sequence);
+        }
+    }
+
+    public record BidRow(Long bidderId, long amount, boolean autoBid, boolean proxyBid) {
+    }
+
+    public record ProxyRow(Long bidderId, long maxAmount) {
+    }
+
+    @Scheduled(fixedDelayString = "${bidding.redis.writer-interval-ms:200}")
+    public void flushAcceptedBids() {
+        if (biddingMode == BiddingMode.JOURNAL) {
+            drainJournal();
+            return;
+        }
+        if (biddingMode != BiddingMode.REDIS_SCRIPT) {
+            return;
+        }
+        if (!lockService.acquireLock(WRITER_LOCK_KEY, WRITER_LOCK_LEASE_MS)) {
+            return; // Another node is writing
+        }
+        try {
+            drainQueue();
+        } finally {
+            lockService.releaseLock(WRITER_LOCK_KEY);
+        }
+    }
+
+    /**
+     * Persists everything queued so far, waiting for another node's writer if
+     * needed. Used before auctions are closed so the winner is read from
+     * complete data.
+     */
+    public void drain() {
+        if (biddingMode == BiddingMode.JOURNAL) {
+            // Bids appended before the call may not be on disk yet, and only durable records are read
+            bidJournal.awaitDurable(bidJournal.lastWritten(), durableTimeoutMs);
+            drainJournal();
+            return;
+        }
+        if (biddingMode != BiddingMode.REDIS_SCRIPT) {
+            return;
+        }
+        if (!lockService.acquireLockWithRetry(WRITER_LOCK_KEY, WRITER_LOCK_TIMEOUT_MS, WRITER_LOCK_LEASE_MS)) {
+            throw new IllegalStateException("Timed out waiting for the accepted bid writer");
+        }
+        try {
+            drainQueue();
+        } finally {
+            lockService.releaseLock(WRITER_LOCK_KEY);
+        }
+    }
+
+    /**
+     * Replays bids journaled before a restart, so auctions are loaded with
+     * their complete state before the first new bid is accepted.
+     */
+    @PostConstruct
+    public void replayJournal() {
+        if (biddingMode != BiddingMode.JOURNAL) {
+            return;
+        }
+        long from = bidJournal.lastCheckpoint();
+        drainJournal();
+        if (bidJournal.lastCheckpoint() > from) {
+            log.info("Replayed bid journal from sequence {} to {}", from + 1, bidJournal.lastCheckpoint());
+        }
+    }
+
+    private synchronized void drainJournal() {
+        while (true) {
+            List<BidJournal.Record> batch = bidJournal.read(bidJournal.lastCheckpoint(), batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            List<AcceptedBid> accepted = batch.stream()
+                    .map(record -> parse(new String(record.payload(), StandardCharsets.UTF_8))
+                            .withSequence(record.sequence()))
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> persist(accepted, "journal"));
+            bidJournal.checkpoint(batch.get(batch.size() - 1).sequence());
+            log.debug("Persisted {} journaled bids in {} ms", batch.size(), (System.nanoTime() - start) / 1_000_000);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void drainQueue() {
+        while (true) {
+            List<String> batch = stringRedisTemplate.opsForList()
+                    .range(RedisBidService.ACCEPTED_BIDS_KEY, 0, batchSize - 1);
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            List<AcceptedBid> accepted = batch.stream().map(this::parse).toList();
+            transactionTemplate.executeWithoutResult(status -> persist(accepted, "redis"));
+            stringRedisTemplate.opsForList().trim(RedisBidService.ACCEPTED_BIDS_KEY, batch.size(), -1);
+            log.debug("Persisted {} accepted bids in {} ms", batch.size(), (System.nanoTime() - start) / 1_000_000);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void persist(List<AcceptedBid> accepted, String source) {
+        Set<Long> closed = closedAuctions(accepted);
+        List<Object[]> bidRows = new ArrayList<>();
+        Map<Long, AcceptedBid> latestByAuction = new LinkedHashMap<>();
+        for (AcceptedBid bid : accepted) {
+            Timestamp createdAt = timestamp(bid.acceptedAt());
+            boolean late = closed.contains(bid.auctionId());
+            for (int i = 0; i < bid.bids().size(); i++) {
+                BidRow row = bid.bids().get(i);
+                bidRows.add(new Object[] { bid.auctionId(), row.bidderId(), cents(row.amount()), row.proxyBid(),
+                        row.autoBid(), (late ? BidStatus.CANCELLED : BidStatus.ACTIVE).name(), createdAt,
+                        acceptedRef(source, bid, i) });
+            }
+            if (late) {
+                // Kept as cancelled bids for the record; the auction's winner and order are final
+                log.error("Accepted bid on auction {} arrived after it closed, stored as cancelled: {}",
+                        bid.auctionId(), write(bid));
+                continue;
+            }
+            if (bid.proxy() != null) {
+                upsertProxy(bid, createdAt);
+            }
+            latestByAuction.put(bid.auctionId(), bid);
+        }
+
+        // Rows of a re-delivered batch are already there after a crash between commit and trim
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bids (auction_id, bidder_id, amount, is_proxy_bid, is_auto_bid, status, created_at, "
+                        + "accepted_ref) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE accepted_ref = accepted_ref",
+                bidRows);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<AcceptedBid> latest = new ArrayList<>(latestByAuction.values());
+        List<Object[]> auctionRows = new ArrayList<>();
+        for (AcceptedBid bid : latest) {
+            auctionRows.add(new Object[] { bid.bidCount(), bid.leaderId(),
+                    bid.endTime() != null ? timestamp(bid.endTime()) : null, now, bid.auctionId(),
+                    bid.auctionId() });
+        }
+        // Highest amount wins; on equal amounts the later row is the proxy auto-bid that beat it.
+        // A closed auction's winner and order are final, so late bids never rewrite it
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE auctions SET bid_count = ?, winner_id = ?, end_time = GREATEST(end_time, COALESCE(?, end_time)), "
+                        + "updated_at = ?, highest_bid_id = "
+                        + "(SELECT b.id FROM bids b WHERE b.auction_id = ? AND b.status <> 'CANCELLED' "
+                        + "ORDER BY b.amount DESC, b.id DESC LIMIT 1) "
+                        + "WHERE id = ? AND status IN ('ACTIVE', 'SCHEDULED')",
+                auctionRows);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        for (int i = 0; i < latest.size(); i++) {
+            AcceptedBid bid = latest.get(i);
+            if (updated[i] == 0) {
+                log.error("Accepted bid on auction {} arrived while it closed, left out of the auction: {}",
+                        bid.auctionId(), write(bid));
+                continue;
+            }
+            itemRows.add(new Object[] { cents(bid.price()), now, bid.itemId() });
+        }
+        jdbcTemplate.batchUpdate("UPDATE items SET current_price = ?, updated_at = ? WHERE id = ?", itemRows);
+    }
+
+    /**
+     * Identifies a bid row of an accepted bid. The acceptance time guards
+     * against a sequence that restarted, after Redis or the journal was wiped.
+     */
+    private static String acceptedRef(String source, AcceptedBid bid, int row) {
+        return bid.sequence() == null ? null
+                : source + ":" + bid.sequence() + ":" + bid.acceptedAt() + ":" + row;
+    }
+
+    private Set<Long> closedAuctions(List<AcceptedBid> accepted) {
+        List<Long> auctionIds = accepted.stream().map(AcceptedBid::auctionId).distinct().toList();
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM auctions WHERE status NOT IN "
+                + "('ACTIVE', 'SCHEDULED') AND id IN (" + String.join(", ", Collections.nCopies(auctionIds.size(), "?"))
+                + ")", Long.class, auctionIds.toArray()));
+    }
+
+    private void upsertProxy(AcceptedBid bid, Timestamp at) {
+        int updated = jdbcTemplate.update(
+                "UPDATE proxy_bids SET max_amount = ?, is_active = TRUE, updated_at = ? "
+                        + "WHERE auction_id = ? AND bidder_id = ?",
+                cents(bid.proxy().maxAmount()), at, bid.auctionId(), bid.proxy().bidderId());
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO proxy_bids (auction_id, bidder_id, max_amount, current_amount, is_active, "
+                            + "created_at, updated_at) VALUES (?, ?, ?, 0, TRUE, ?, ?)",
+                    bid.auctionId(), bid.proxy().bidderId(), cents(bid.proxy().maxAmount()), at, at);
+        }
+    }
+
+    private AcceptedBid parse(String json) {
+        try {
+            return objectMapper.readValue(json, AcceptedBid.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable accepted bid: " + json, e);
+        }
+    }
+
+    private String write(AcceptedBid bid) {
+        try {
+            return objectMapper.writeValueAsString(bid);
+        } catch (JsonProcessingException e) {
+            return bid.toString();
+        }
+    }
+
+    private static BigDecimal cents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static Timestamp timestamp(long epochMillis) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.marketplace.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * Announces closed auctions on the {@code auction_closed} Redis channel, so
+ * every node drops the state it keeps for bidding on them, not only the node
+ * that closed them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuctionCloseBroadcast {
+
+    private static final String CHANNEL = "auction_closed";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /** Calls {@code listener} with the auction and item id of every auction closed by any node. */
+    public void subscribe(BiConsumer<Long, Long> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String[] ids = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+            listener.accept(Long.valueOf(ids[0]), Long.valueOf(ids[1]));
+        }, new ChannelTopic(CHANNEL));
+    }
+
+    public void publish(Long auctionId, Long itemId) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, auctionId + ":" + itemId);
+        } catch (RuntimeException e) {
+            // Only this node has dropped the auction's state then
+            log.warn("Could not announce the close of auction {} to the other nodes", auctionId, e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.marketplace.scheduler;
+
+import com.marketplace.engine.CloseShardRing;
+import com.marketplace.enums.CloseCoordination;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Splits auction closing between nodes. Auctions fall into
+ * {@code auction.close-partitions} partitions by id, and in SHARDED mode each
+ * node closes only the partitions a {@link CloseShardRing} over the live
+ * nodes gives it. Nodes register in a Redis sorted set scored by their last
+ * heartbeat, and ones that miss heartbeats for {@code auction.close-node-ttl-ms}
+ * drop out of the ring.
+ *
+ * Two nodes may both think they own a partition until each has seen the same
+ * members; the close itself is a conditional update, so that only costs a
+ * wasted attempt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuctionCloseShards {
+
+    private static final String NODES_KEY = "auction_close:nodes";
+    private static final int POINTS_PER_NODE = 64;
+
+    // Refreshes this node's heartbeat, drops expired nodes and returns the live ones, all on Redis time
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HEARTBEAT_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('ZADD', KEYS[1], now, ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2]))
+            return redis.call('ZRANGE', KEYS[1], 0, -1)
+            """, List.class);
+
+    private static final RedisScript<Long> LEAVE_SCRIPT = RedisScript.of(
+            "return redis.call('ZREM', KEYS[1], ARGV[1])", Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${auction.close-coordination:ALL_NODES}")
+    private CloseCoordination coordination = CloseCoordination.ALL_NODES;
+
+    @Value("${auction.close-partitions:256}")
+    private int partitions = 256;
+
+    @Value("${auction.close-node-ttl-ms:10000}")
+    private long nodeTtlMs = 10000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private Set<String> members = Set.of();
+    private volatile Set<Integer> owned = Set.of();
+
+    public boolean isSharded() {
+        return coordination == CloseCoordination.SHARDED;
+    }
+
+    public boolean owns(Long auctionId) {
+        return !isSharded() || owned.contains(CloseShardRing.partitionOf(auctionId, partitions));
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /** The partitions this node closes; empty until its first heartbeat in SHARDED mode. */
+    public Set<Integer> ownedPartitions() {
+        return owned;
+    }
+
+    /**
+     * SQL condition limiting {@code idColumn} to this node's partitions, to be
+     * appended after a WHERE clause. Empty outside SHARDED mode.
+     */
+    public String sqlFilter(String idColumn) {
+        if (!isSharded()) {
+            return "";
+        }
+        Set<Integer> current = owned;
+        if (current.isEmpty()) {
+            return " AND 1 = 0";
+        }
+        return " AND MOD(" + idColumn + ", " + partitions + ") IN ("
+                + current.stream().sorted().map(String::valueOf).collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * Renews this node's registration and recomputes its partitions from the
+     * live nodes. Returns the partitions it gained, whose active auctions the
+     * caller has to schedule. Keeps the previous partitions if Redis fails.
+     */
+    public synchronized Set<Integer> heartbeat() {
+        if (!isSharded()) {
+            return Set.of();
+        }
+        Set<String> live;
+        try {
+            // The result serializer is applied to each element of the returned list
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            List<String> nodes = (List<String>) redisTemplate.execute(HEARTBEAT_SCRIPT, RedisSerializer.string(),
+                    (RedisSerializer) RedisSerializer.string(), List.of(NODES_KEY), nodeId,
+                    String.valueOf(nodeTtlMs));
+            live = new TreeSet<>(nodes != null ? nodes : List.of());
+        } catch (RuntimeException e) {
+            log.warn("Close shard heartbeat failed, keeping {} partitions", owned.size(), e);
+            return Set.of();
+        }
+        live.add(nodeId);
+        if (live.equals(members)) {
+            return Set.of();
+        }
+
+        Set<Integer> next = new CloseShardRing(live, POINTS_PER_NODE).ownedBy(nodeId, partitions);
+        Set<Integer> gained = new HashSet<>(next);
+        gained.removeAll(owned);
+        log.info("Close shards rebalanced over {} nodes: this node owns {} of {} partitions ({} gained)",
+                live.size(), next.size(), partitions, gained.size());
+        members = live;
+        owned = Set.copyOf(next);
+        return gained;
+    }
+
+    /** Leaves the ring, so the other nodes take over this node's partitions on their next heartbeat. */
+    @PreDestroy
+    public void leave() {
+        if (!isSharded()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(LEAVE_SCRIPT, RedisSerializer.string(),
+                    new GenericToStringSerializer<>(Long.class), List.of(NODES_KEY), nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not leave the close shard ring, it expires after {} ms", nodeTtlMs, e);
+        }
+    }
+}
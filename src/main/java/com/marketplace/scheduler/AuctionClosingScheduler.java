@@ -1,27 +1,64 @@
 package com.marketplace.scheduler;
 
+import com.marketplace.dto.BidResponse;
+import com.marketplace.engine.AfterTransaction;
+import com.marketplace.engine.AuctionBidQueues;
+import com.marketplace.engine.AuctionCloseCatchUp;
+import com.marketplace.engine.AuctionCloseLag;
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.AuctionPriceSnapshots;
+import com.marketplace.engine.EndingSoonFeed;
+import com.marketplace.engine.PartitionedBidEngine;
+import com.marketplace.engine.ProxyBidBooks;
 import com.marketplace.entity.Auction;
 import com.marketplace.entity.Bid;
 import com.marketplace.event.AuctionWonEvent;
 import com.marketplace.entity.Item;
 import com.marketplace.entity.Order;
 import com.marketplace.enums.AuctionStatus;
+import com.marketplace.enums.BidStatus;
+import com.marketplace.enums.BiddingMode;
 import com.marketplace.enums.OrderStatus;
+import com.marketplace.enums.OrderType;
 import com.marketplace.repository.AuctionRepository;
 import com.marketplace.repository.BidRepository;
 import com.marketplace.repository.ItemRepository;
 import com.marketplace.repository.OrderRepository;
-import com.marketplace.service.RedisLockService;
+import com.marketplace.service.JournalBidService;
+import com.marketplace.service.LockService;
+import com.marketplace.service.RedisBidService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
@@ -32,43 +69,482 @@ public class AuctionClosingScheduler {
     private final BidRepository bidRepository;
     private final OrderRepository orderRepository;
     private final ItemRepository itemRepository;
-    private final RedisLockService redisLockService;
+    private final LockService lockService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ProxyBidBooks proxyBidBooks;
+    private final AuctionPriceSnapshots priceSnapshots;
+    private final AuctionBidQueues auctionBidQueues;
+    private final AuctionCloseSchedule closeSchedule;
+    private final AuctionCloseShards closeShards;
+    private final AuctionCloseBroadcast closeBroadcast;
+    private final AuctionCloseLag closeLag;
+    private final AuctionCloseCatchUp closeCatchUp;
+    private final EndingSoonFeed endingSoonFeed;
+    private final AcceptedBidWriter acceptedBidWriter;
+    private final RedisBidService redisBidService;
+    private final JournalBidService journalBidService;
+    private final PartitionedBidEngine bidEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
 
-    @Scheduled(fixedRate = 1000) // Run every second
-    public void closeExpiredAuctions() {
+    private static final long CLOSE_LOCK_LEASE_MS = 2000; // Renewed while a close is still running
+    private static final long CLOSE_RETRY_MS = 1000;
+    // CLOSING claims older than this belong to a node that died mid-close
+    private static final Duration STALE_CLAIM = Duration.ofMinutes(5);
+    // Longest the closer sleeps without an auction ending, so it notices shutdown
+    private static final long CLOSER_IDLE_MS = 1000;
+
+    @Value("${bidding.mode:LOCK}")
+    private BiddingMode biddingMode = BiddingMode.LOCK;
+
+    @Value("${auction.closing-check-interval:60000}")
+    private long sweepIntervalMs = 60000;
+
+    @Value("${auction.close-batch-size:100}")
+    private int closeBatchSize = 100;
+
+    @Value("${auction.catch-up.min-backlog:200}")
+    private int catchUpMinBacklog = 200;
+
+    private volatile Thread closer;
+
+    private Timer claimTimer;
+    private Timer loadTimer;
+    private Timer ordersTimer;
+    private Timer finishTimer;
+
+    /** An auction claimed by a batch close, with its winning bid if it has one. */
+    private record ClaimedAuction(Long auctionId, Long itemId, Long sellerId, String itemTitle, Long bidId,
+            Long bidderId, String bidderEmail, BigDecimal amount, Boolean proxyBid, Boolean autoBid,
+            String bidStatus, Timestamp bidCreatedAt, LocalDateTime endTime) {
+    }
+
+    @PostConstruct
+    public void registerMeters() {
+        claimTimer = batchTimer("claim");
+        loadTimer = batchTimer("load");
+        ordersTimer = batchTimer("orders");
+        finishTimer = batchTimer("finish");
+    }
+
+    private Timer batchTimer(String phase) {
+        return Timer.builder("auctions.close.batch")
+                .description("Time per phase of closing a batch of auctions")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules every active auction and starts the closer thread, which
+     * closes each auction as soon as its end time passes. A backlog of
+     * auctions that ended while no node was closing them goes to the catch-up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        closeBroadcast.subscribe(this::forgetClosed); // Closes by any node, this one included
+
+        if (closeShards.isSharded()) {
+            rebalanceCloseShards(); // Joins the ring and schedules this node's partitions
+        } else {
+            List<Auction> activeAuctions = auctionRepository.findByStatus(AuctionStatus.ACTIVE);
+            schedule(activeAuctions);
+            log.info("Scheduled closing of {} active auctions", activeAuctions.size());
+        }
+
+        closer = new Thread(this::runCloser, "auction-closer");
+        closer.setDaemon(true);
+        closer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = closer;
+        closer = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void runCloser() {
+        while (closer == Thread.currentThread()) {
+            try {
+                List<Long> ended = closeSchedule.awaitDue(CLOSER_IDLE_MS);
+                if (!ended.isEmpty()) {
+                    closeEnded(ended);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Auction closer failed, will retry with the next due auction", e);
+            }
+        }
+    }
+
+    /**
+     * In SHARDED close coordination, renews this node's place in the ring and
+     * schedules the active auctions of partitions it took over. Auctions of
+     * partitions it lost stay scheduled, and are skipped when they end.
+     */
+    @Scheduled(fixedDelayString = "${auction.close-heartbeat-ms:2000}")
+    public void rebalanceCloseShards() {
+        Set<Integer> gained = closeShards.heartbeat();
+        if (gained.isEmpty()) {
+            return;
+        }
+        List<Auction> activeAuctions = auctionRepository.findActiveAuctionsInPartitions(
+                closeShards.getPartitions(), asLongs(gained));
+        schedule(activeAuctions);
+        log.info("Scheduled closing of {} active auctions in {} gained partitions", activeAuctions.size(),
+                gained.size());
+    }
+
+    private void closeEnded(List<Long> auctionIds) {
+        auctionIds = auctionIds.stream().filter(closeShards::owns).toList(); // Others belong to another node
+        if (auctionIds.isEmpty()) {
+            return;
+        }
+        auctionIds = stopBidding(auctionIds);
+        if (auctionIds.isEmpty()) {
+            return;
+        }
+        // Bids accepted in Redis or journaled before the end time must be in MySQL before winners are read
+        acceptedBidWriter.drain();
+        List<Long> unclaimed = auctionIds;
+        if (closeBatchSize > 0) {
+            unclaimed = new ArrayList<>();
+            for (int from = 0; from < auctionIds.size(); from += closeBatchSize) {
+                List<Long> chunk = auctionIds.subList(from, Math.min(from + closeBatchSize, auctionIds.size()));
+                unclaimed.addAll(closeBatch(chunk));
+            }
+            if (unclaimed.isEmpty()) {
+                return;
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Auction auction : auctionRepository.findAllById(unclaimed)) {
+            if (auction.getStatus() != AuctionStatus.ACTIVE) {
+                continue; // Closed or claimed elsewhere
+            }
+            if (auction.getEndTime().isAfter(now)) {
+                closeSchedule.schedule(auction.getId(), auction.getEndTime()); // Extended meanwhile
+                if (biddingMode == BiddingMode.REDIS_SCRIPT) {
+                    redisBidService.reopenBidding(auction.getId());
+                } else if (biddingMode == BiddingMode.JOURNAL) {
+                    journalBidService.evict(auction.getId());
+                }
+            } else if (closeBatchSize > 0) {
+                closeSchedule.schedule(auction.getId(), now.plus(Duration.ofMillis(CLOSE_RETRY_MS)));
+            } else {
+                closeWithLock(auction);
+            }
+        }
+    }
+
+    /**
+     * In REDIS_SCRIPT and JOURNAL mode, stops bids from being accepted on the
+     * auctions before the accepted bids are drained; otherwise a bid accepted
+     * after the drain would be acknowledged but left out of the winner.
+     * Journaled auctions are stopped on their partition thread, behind the bids
+     * already queued there. Auctions a soft close extended in Redis or the
+     * journal are rescheduled instead and left out.
+     */
+    private List<Long> stopBidding(List<Long> auctionIds) {
         LocalDateTime now = LocalDateTime.now();
-        List<Auction> expiredAuctions = auctionRepository.findExpiredAuctions(now);
-
-        for (Auction auction : expiredAuctions) {
-            String lockKey = "auction_close:" + auction.getId();
-            // Try to acquire lock to ensure only one instance closes the auction
-            if (redisLockService.acquireLock(lockKey, 5000)) {
-                try {
-                    closeAuction(auction);
-                } catch (Exception e) {
-                    log.error("Failed to close auction {}", auction.getId(), e);
-                } finally {
-                    redisLockService.releaseLock(lockKey);
+        Map<Long, LocalDateTime> extended;
+        if (biddingMode == BiddingMode.REDIS_SCRIPT) {
+            extended = redisBidService.closeBidding(auctionIds, now);
+        } else if (biddingMode == BiddingMode.JOURNAL) {
+            Map<Long, CompletableFuture<LocalDateTime>> closing = new LinkedHashMap<>();
+            for (Long auctionId : auctionIds) {
+                closing.put(auctionId, bidEngine.submit(auctionId,
+                        () -> journalBidService.closeBidding(auctionId, now)));
+            }
+            extended = new HashMap<>();
+            closing.forEach((id, endTime) -> {
+                if (endTime.join() != null) {
+                    extended.put(id, endTime.join());
                 }
+            });
+        } else {
+            return auctionIds;
+        }
+        extended.forEach(closeSchedule::schedule);
+        return extended.isEmpty() ? auctionIds
+                : auctionIds.stream().filter(id -> !extended.containsKey(id)).toList();
+    }
+
+    /**
+     * Safety net for auctions the closer does not know about, such as ones
+     * created on another node or whose end time was changed there: schedules
+     * every active auction that ends before the next sweep, and ones that have
+     * already ended are closed right away. Auctions a node left in CLOSING
+     * are reopened so they are closed again. In SHARDED close coordination
+     * only this node's partitions are swept.
+     */
+    @Scheduled(fixedDelayString = "${auction.closing-check-interval:60000}")
+    public void sweepEndingAuctions() {
+        int released = jdbcTemplate.update("UPDATE auctions SET status = 'ACTIVE', close_claim = NULL "
+                + "WHERE status = 'CLOSING' AND updated_at < ?" + closeShards.sqlFilter("id"),
+                Timestamp.valueOf(LocalDateTime.now().minus(STALE_CLAIM)));
+        if (released > 0) {
+            log.warn("Released {} auctions left in CLOSING by an unfinished batch close", released);
+        }
+        LocalDateTime horizon = LocalDateTime.now().plus(Duration.ofMillis(2 * sweepIntervalMs));
+        List<Auction> ending;
+        if (!closeShards.isSharded()) {
+            ending = auctionRepository.findActiveAuctionsEndingBefore(horizon);
+        } else if (closeShards.ownedPartitions().isEmpty()) {
+            ending = List.of();
+        } else {
+            ending = auctionRepository.findActiveAuctionsEndingBeforeInPartitions(horizon,
+                    closeShards.getPartitions(), asLongs(closeShards.ownedPartitions()));
+        }
+        schedule(ending);
+    }
+
+    /**
+     * Schedules the auctions' closes. When at least
+     * {@code auction.catch-up.min-backlog} of them have already ended, those
+     * are closed by the catch-up instead, so the closer keeps up with the
+     * auctions ending from now on. Auctions the catch-up already has are left
+     * to it.
+     */
+    private void schedule(List<Auction> auctions) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Auction> overdue = new ArrayList<>();
+        for (Auction auction : auctions) {
+            if (closeCatchUp.isQueued(auction.getId())) {
+                continue;
+            }
+            if (catchUpMinBacklog > 0 && !auction.getEndTime().isAfter(now)) {
+                overdue.add(auction);
+            } else {
+                closeSchedule.schedule(auction.getId(), auction.getEndTime());
+            }
+        }
+        if (overdue.size() < catchUpMinBacklog) {
+            overdue.forEach(auction -> closeSchedule.schedule(auction.getId(), auction.getEndTime()));
+            return;
+        }
+        overdue.sort(Comparator.comparing(Auction::getEndTime));
+        closeCatchUp.add(overdue.stream().map(Auction::getId).toList(), this::closeEnded);
+    }
+
+    /** Counts the active auctions past their end time for the {@code auctions.close.backlog} gauge. */
+    @Scheduled(fixedDelayString = "${auction.close-lag.backlog-refresh-ms:10000}")
+    public void refreshCloseBacklog() {
+        closeLag.setBacklog(auctionRepository.countByStatusAndEndTimeBefore(AuctionStatus.ACTIVE,
+                LocalDateTime.now()));
+    }
+
+    private static List<Long> asLongs(Set<Integer> partitions) {
+        return partitions.stream().map(Integer::longValue).toList();
+    }
+
+    private void closeWithLock(Auction auction) {
+        String lockKey = "auction_close:" + auction.getId();
+        // Try to acquire lock to ensure only one instance closes the auction
+        if (lockService.acquireLock(lockKey, CLOSE_LOCK_LEASE_MS)) {
+            try {
+                long fencingToken = lockService.fencingToken(lockKey);
+                // Called on this instance, so @Transactional would not apply
+                transactionTemplate.executeWithoutResult(status -> closeAuction(auction, fencingToken));
+            } catch (Exception e) {
+                log.error("Failed to close auction {}, retrying", auction.getId(), e);
+                closeSchedule.schedule(auction.getId(), LocalDateTime.now().plus(Duration.ofMillis(CLOSE_RETRY_MS)));
+            } finally {
+                lockService.releaseLock(lockKey);
+            }
+        } else {
+            // Retried until the holder has closed it, or the lock turns out to be abandoned
+            closeSchedule.schedule(auction.getId(), LocalDateTime.now().plus(Duration.ofMillis(CLOSE_RETRY_MS)));
+        }
+    }
+
+    /**
+     * Closes the given ended auctions together: claims them as CLOSING with one
+     * conditional update, reads their winning bids with one join, inserts the
+     * orders in a JDBC batch and marks them CLOSED in another. The claim needs
+     * no lock, as the conditional update lets only one node claim an auction.
+     * Returns the auctions that were not claimed.
+     */
+    private List<Long> closeBatch(List<Long> auctionIds) {
+        long claim = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        long started = System.nanoTime();
+        // Waits for the row locks of bids still running on these auctions
+        int claimed = jdbcTemplate.update("UPDATE auctions SET status = 'CLOSING', close_claim = ?, updated_at = ? "
+                + "WHERE status = 'ACTIVE' AND end_time <= ? AND id IN (" + placeholders(auctionIds.size()) + ")",
+                batchArgs(claim, auctionIds));
+        long claimedAt = System.nanoTime();
+        claimTimer.record(claimedAt - started, TimeUnit.NANOSECONDS);
+        if (claimed == 0) {
+            return auctionIds;
+        }
+
+        List<ClaimedAuction> closed;
+        try {
+            closed = transactionTemplate.execute(status -> finishBatch(claim));
+        } catch (RuntimeException e) {
+            log.error("Failed to close a batch of {} auctions, retrying", claimed, e);
+            jdbcTemplate.update("UPDATE auctions SET status = 'ACTIVE', close_claim = NULL "
+                    + "WHERE status = 'CLOSING' AND close_claim = ?", claim);
+            LocalDateTime retryAt = LocalDateTime.now().plus(Duration.ofMillis(CLOSE_RETRY_MS));
+            auctionIds.forEach(id -> closeSchedule.schedule(id, retryAt));
+            return List.of();
+        }
+        log.info("Closed {} auctions in {} ms (claim {} ms)", closed.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                TimeUnit.NANOSECONDS.toMillis(claimedAt - started));
+
+        Set<Long> closedIds = new HashSet<>();
+        closed.forEach(auction -> closedIds.add(auction.auctionId()));
+        return auctionIds.stream().filter(id -> !closedIds.contains(id)).toList();
+    }
+
+    private List<ClaimedAuction> finishBatch(long claim) {
+        long started = System.nanoTime();
+        List<ClaimedAuction> claimed = jdbcTemplate.query(
+                "SELECT a.id, a.item_id, i.seller_id, i.title, b.id, b.bidder_id, u.email, b.amount, "
+                        + "b.is_proxy_bid, b.is_auto_bid, b.status, b.created_at, a.end_time "
+                        + "FROM auctions a JOIN items i ON i.id = a.item_id "
+                        + "LEFT JOIN bids b ON b.id = a.highest_bid_id LEFT JOIN users u ON u.id = b.bidder_id "
+                        + "WHERE a.status = 'CLOSING' AND a.close_claim = ?",
+                (rs, row) -> new ClaimedAuction(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4),
+                        rs.getObject(5, Long.class), rs.getObject(6, Long.class), rs.getString(7),
+                        rs.getBigDecimal(8), rs.getObject(9, Boolean.class), rs.getObject(10, Boolean.class),
+                        rs.getString(11), rs.getTimestamp(12), rs.getTimestamp(13).toLocalDateTime()),
+                claim);
+        long loaded = System.nanoTime();
+        loadTimer.record(loaded - started, TimeUnit.NANOSECONDS);
+        for (ClaimedAuction auction : claimed) {
+            if (biddingMode == BiddingMode.REDIS_SCRIPT) {
+                redisBidService.markClosed(auction.auctionId());
+            } else if (biddingMode == BiddingMode.JOURNAL) {
+                // Bidding was stopped before the drain; the state goes once the close is final
+                AfterTransaction.onCommit(() -> journalBidService.evict(auction.auctionId()));
+            }
+        }
+
+        LocalDateTime closedAt = LocalDateTime.now();
+        Timestamp now = Timestamp.valueOf(closedAt);
+        List<Object[]> orderRows = new ArrayList<>();
+        List<Object[]> auctionRows = new ArrayList<>();
+        for (ClaimedAuction auction : claimed) {
+            if (auction.bidId() != null) {
+                orderRows.add(new Object[] { auction.itemId(), auction.bidderId(), auction.sellerId(),
+                        OrderType.AUCTION_WIN.name(), auction.amount(), OrderStatus.PENDING_PAYMENT.name(), now,
+                        now });
+            }
+            auctionRows.add(new Object[] { now, auction.bidderId(), now, auction.auctionId(), claim });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (item_id, buyer_id, seller_id, order_type, amount, status, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", orderRows);
+        long ordered = System.nanoTime();
+        ordersTimer.record(ordered - loaded, TimeUnit.NANOSECONDS);
+
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE auctions SET status = 'CLOSED', closed_at = ?, "
+                + "winner_id = ?, updated_at = ? WHERE id = ? AND status = 'CLOSING' AND close_claim = ?", auctionRows);
+        for (int count : updated) {
+            if (count == 0) {
+                // Released by the sweep as stale meanwhile; roll back so its orders are not kept twice
+                throw new IllegalStateException("Claim " + claim + " was released before the batch close finished");
+            }
+        }
+        for (ClaimedAuction auction : claimed) {
+            if (auction.bidId() != null) {
+                eventPublisher.publishEvent(new AuctionWonEvent(auction.auctionId(), auction.bidderId(),
+                        auction.amount(), auction.bidderEmail(), auction.itemTitle()));
+            }
+        }
+        AfterTransaction.onCommit(() -> claimed.forEach(auction -> {
+            closeLag.closed(auction.auctionId(), auction.endTime(), closedAt);
+            if (auction.bidId() != null) {
+                closeLag.wonEventPublished(closedAt);
             }
+            announceClosed(auction);
+        }));
+        finishTimer.record(System.nanoTime() - ordered, TimeUnit.NANOSECONDS);
+        log.info("Batch of {} auctions: load {} ms, {} orders {} ms, finish {} ms", claimed.size(),
+                TimeUnit.NANOSECONDS.toMillis(loaded - started), orderRows.size(),
+                TimeUnit.NANOSECONDS.toMillis(ordered - loaded),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ordered));
+        return claimed;
+    }
+
+    private void announceClosed(ClaimedAuction auction) {
+        if (auction.bidId() != null) {
+            messagingTemplate.convertAndSend("/topic/auction/" + auction.auctionId() + "/ended",
+                    BidResponse.builder()
+                            .id(auction.bidId())
+                            .auctionId(auction.auctionId())
+                            .itemId(auction.itemId())
+                            .bidderId(auction.bidderId())
+                            .amount(auction.amount())
+                            .isProxyBid(auction.proxyBid())
+                            .isAutoBid(auction.autoBid())
+                            .status(BidStatus.valueOf(auction.bidStatus()))
+                            .createdAt(auction.bidCreatedAt().toLocalDateTime())
+                            .build());
+        } else {
+            messagingTemplate.convertAndSend("/topic/auction/" + auction.auctionId() + "/ended", "NO_BIDS");
         }
+        forgetClosed(auction.auctionId(), auction.itemId());
+        closeBroadcast.publish(auction.auctionId(), auction.itemId());
+    }
+
+    // Drops the in-memory state kept for bidding on and listing a closed auction, also on the
+    // nodes that did not close it, through the close broadcast
+    private void forgetClosed(Long auctionId, Long itemId) {
+        proxyBidBooks.evict(auctionId);
+        priceSnapshots.evict(itemId);
+        auctionBidQueues.evict(auctionId);
+        closeSchedule.cancel(auctionId);
+        endingSoonFeed.remove(auctionId);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] batchArgs(long claim, List<Long> auctionIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> args = new ArrayList<>(List.of(claim, now, now));
+        args.addAll(auctionIds);
+        return args.toArray();
     }
 
     private final org.springframework.context.ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Closes the auction unless a later holder of its closing lock, identified
+     * by a larger {@code fencingToken}, has already claimed it.
+     */
     @Transactional
-    public void closeAuction(Auction auction) {
+    public void closeAuction(Auction auction, long fencingToken) {
         log.info("Closing auction {}", auction.getId());
 
+        // Also locks the row, so a later holder waits here until this close commits
+        if (auctionRepository.claimForClosing(auction.getId(), fencingToken) == 0) {
+            log.info("Auction {} already closed or claimed by a newer lock holder", auction.getId());
+            return;
+        }
+
         // Reload to be sure
         auction = auctionRepository.findById(auction.getId()).orElseThrow();
         if (auction.getStatus() != AuctionStatus.ACTIVE) {
             return; // Already closed
         }
 
+        LocalDateTime closedAt = LocalDateTime.now();
         auction.setStatus(AuctionStatus.CLOSED);
-        auction.setClosedAt(LocalDateTime.now());
+        auction.setClosedAt(closedAt);
+        if (biddingMode == BiddingMode.REDIS_SCRIPT) {
+            redisBidService.markClosed(auction.getId());
+        } else if (biddingMode == BiddingMode.JOURNAL) {
+            Long auctionId = auction.getId();
+            AfterTransaction.onCommit(() -> journalBidService.evict(auctionId));
+        }
 
         if (auction.getHighestBidId() != null) {
             Bid winningBid = bidRepository.findById(auction.getHighestBidId()).orElseThrow();
@@ -87,6 +563,8 @@ public class AuctionClosingScheduler {
                     winningBid.getAmount(),
                     winningBid.getBidder().getEmail(),
                     auction.getItem().getTitle()));
+            // Registered after the event's after-commit listeners, so this runs once they did
+            AfterTransaction.onCommit(() -> closeLag.wonEventPublished(closedAt));
 
         } else {
             // No bids
@@ -100,6 +578,14 @@ public class AuctionClosingScheduler {
         }
 
         auctionRepository.save(auction);
+        forgetClosed(auction.getId(), auction.getItem().getId());
+        Long auctionId = auction.getId();
+        Long itemId = auction.getItem().getId();
+        LocalDateTime endTime = auction.getEndTime();
+        AfterTransaction.onCommit(() -> {
+            closeLag.closed(auctionId, endTime, closedAt);
+            closeBroadcast.publish(auctionId, itemId);
+        });
     }
 
     private void createOrder(Auction auction, Bid winningBid) {
@@ -1,6 +1,9 @@
 package com.marketplace.service;
 
+import com.marketplace.engine.AuctionCloseCatchUp;
+import com.marketplace.engine.AuctionCloseLag;
 import com.marketplace.entity.*;
+import com.marketplace.enums.AuctionStatus;
 import com.marketplace.enums.FraudReportStatus;
 import com.marketplace.enums.ItemStatus;
 import com.marketplace.repository.*;
@@ -12,7 +15,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -25,6 +31,12 @@ public class AdminService {
     private final AuctionRepository auctionRepository;
     private final FraudReportRepository fraudReportRepository;
     private final AuditLogRepository auditLogRepository;
+    private final AuctionCloseLag closeLag;
+    private final AuctionCloseCatchUp closeCatchUp;
+
+    /** An active auction that is past its end time. */
+    public record OverdueAuction(Long auctionId, LocalDateTime endTime, long overdueMs) {
+    }
 
     // ─── Dashboard Stats ─────────────────────────────────────────────
 
@@ -38,6 +50,28 @@ public class AdminService {
         return stats;
     }
 
+    // ─── Auction Close Lag ───────────────────────────────────────────
+
+    /**
+     * The overdue backlog, the most delayed recent closes, the auctions that
+     * have been overdue longest and the progress of this node's catch-up.
+     */
+    public Map<String, Object> getCloseLag(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OverdueAuction> overdue = auctionRepository
+                .findByStatusAndEndTimeBeforeOrderByEndTimeAsc(AuctionStatus.ACTIVE, now, PageRequest.of(0, limit))
+                .stream()
+                .map(a -> new OverdueAuction(a.getId(), a.getEndTime(),
+                        Duration.between(a.getEndTime(), now).toMillis()))
+                .toList();
+        Map<String, Object> lag = new HashMap<>();
+        lag.put("backlog", closeLag.getBacklog());
+        lag.put("mostDelayedCloses", closeLag.worst(limit));
+        lag.put("mostOverdue", overdue);
+        lag.put("catchUp", closeCatchUp.progress());
+        return lag;
+    }
+
     // ─── User Management ─────────────────────────────────────────────
 
     public Page<User> getUsers(int page, int size) {
@@ -0,0 +1,182 @@
+package com.marketplace.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates bid requests that carry an {@code Idempotency-Key}: a retry of a
+ * request that already succeeded gets the original response body back instead
+ * of placing the bid again, and a retry that arrives while the original is
+ * still running completes with its outcome.
+ *
+ * Keys are scoped to the bidder. Responses are kept in a bounded local cache
+ * for {@code bidding.idempotency.ttl-seconds}; with
+ * {@code bidding.idempotency.redis=true} they are also stored in Redis so a
+ * retry that lands on another node is deduplicated too. Failed bids are not
+ * cached, so they can be retried with the same key.
+ */
+@Service
+public class BidIdempotencyService {
+
+    private static final String REDIS_KEY_PREFIX = "bid_idempotency:";
+    private static final String PENDING = "PENDING";
+    // Bounds how long a crashed node's unfinished bid blocks retries with its key
+    private static final Duration PENDING_TTL = Duration.ofSeconds(30);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // TTLs are all equal, so insertion order is also expiry order
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final Counter checked;
+    private final Counter localHits;
+    private final Counter redisHits;
+
+    @Value("${bidding.idempotency.ttl-seconds:600}")
+    private long ttlSeconds = 600;
+
+    @Value("${bidding.idempotency.max-entries:100000}")
+    private int maxEntries = 100000;
+
+    @Value("${bidding.idempotency.redis:false}")
+    private boolean redisEnabled;
+
+    private record Entry(String key, String fingerprint, CompletableFuture<String> response, long expiresAt) {
+    }
+
+    public BidIdempotencyService(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.checked = Counter.builder("bids.idempotency.checked")
+                .description("Bid requests with an Idempotency-Key")
+                .register(meterRegistry);
+        this.localHits = Counter.builder("bids.idempotency.hits")
+                .description("Bid requests answered from an earlier request with the same Idempotency-Key")
+                .tag("tier", "local")
+                .register(meterRegistry);
+        this.redisHits = Counter.builder("bids.idempotency.hits")
+                .description("Bid requests answered from an earlier request with the same Idempotency-Key")
+                .tag("tier", "redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completes with the JSON response of the first request with this key,
+     * starting {@code placeBid} only if there is none. {@code fingerprint}
+     * identifies the bid itself, so a key reused for a different bid is rejected.
+     */
+    public CompletableFuture<String> execute(String bidderEmail, String idempotencyKey, String fingerprint,
+            Supplier<? extends CompletableFuture<?>> placeBid) {
+        checked.increment();
+        String key = bidderEmail + ":" + idempotencyKey;
+        long now = System.nanoTime();
+        evictExpired(now);
+
+        Entry entry = new Entry(key, fingerprint, new CompletableFuture<>(),
+                now + TimeUnit.SECONDS.toNanos(ttlSeconds));
+        Entry current = entries.merge(key, entry, (old, fresh) -> old.expiresAt() - now > 0 ? old : fresh);
+        if (current != entry) {
+            requireSameBid(current.fingerprint(), fingerprint);
+            localHits.increment();
+            return current.response();
+        }
+        insertionOrder.add(entry);
+
+        CompletableFuture<String> response;
+        try {
+            response = redisEnabled ? executeWithRedis(key, fingerprint, placeBid) : serialize(placeBid.get());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((body, error) -> {
+            if (error == null) {
+                entry.response().complete(body);
+            } else {
+                // Failed bids are not remembered; waiting duplicates get the same error
+                entries.remove(key, entry);
+                entry.response().completeExceptionally(unwrap(error));
+            }
+        });
+        return entry.response();
+    }
+
+    private CompletableFuture<String> executeWithRedis(String key, String fingerprint,
+            Supplier<? extends CompletableFuture<?>> placeBid) {
+        String redisKey = REDIS_KEY_PREFIX + key;
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(redisKey, PENDING, PENDING_TTL))) {
+            String stored = stringRedisTemplate.opsForValue().get(redisKey);
+            if (stored == null || stored.equals(PENDING)) {
+                throw new RuntimeException("A bid with this Idempotency-Key is already in progress");
+            }
+            int separator = stored.indexOf('\n');
+            requireSameBid(stored.substring(0, separator), fingerprint);
+            redisHits.increment();
+            return CompletableFuture.completedFuture(stored.substring(separator + 1));
+        }
+        CompletableFuture<String> response;
+        try {
+            response = serialize(placeBid.get());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((body, error) -> {
+            if (error == null) {
+                stringRedisTemplate.opsForValue().set(redisKey, fingerprint + "\n" + body,
+                        Duration.ofSeconds(ttlSeconds));
+            } else {
+                stringRedisTemplate.delete(redisKey);
+            }
+        });
+    }
+
+    private void evictExpired(long now) {
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null) {
+            boolean current = entries.get(oldest.key()) == oldest;
+            if (current && oldest.expiresAt() - now > 0 && entries.size() <= maxEntries) {
+                return;
+            }
+            if (insertionOrder.remove(oldest) && current) {
+                entries.remove(oldest.key(), oldest);
+            }
+        }
+    }
+
+    private static void requireSameBid(String original, String fingerprint) {
+        if (!original.equals(fingerprint)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different bid");
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private CompletableFuture<String> serialize(CompletableFuture<?> result) {
+        return result.thenApply(value -> {
+            try {
+                return objectMapper.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize bid response", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,227 @@
+package com.marketplace.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets that throttle bid requests before they reach {@link BidService}:
+ * one per bidder, and one per bidder and auction so a single client hammering
+ * one auction cannot starve the others waiting for its lock.
+ *
+ * Each bucket is a single "theoretical arrival time" (GCRA): the instant it
+ * would be full again. Local buckets update it with a CAS, so checking a bid
+ * takes no lock. With {@code bidding.rate-limit.redis=true} the buckets live in
+ * Redis and the limits hold across all nodes; if Redis cannot be reached the
+ * local buckets are used instead.
+ */
+@Service
+@Slf4j
+public class BidRateLimiter {
+
+    private static final String REDIS_KEY_PREFIX = "bid_rate:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> rateLimitScript = RedisScript.of(
+            new ClassPathResource("scripts/bid_rate_limit.lua"), List.class);
+
+    private final Counter bidderThrottled;
+    private final Counter auctionThrottled;
+
+    @Value("${bidding.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${bidding.rate-limit.per-bidder.per-second:20}")
+    private double bidderPerSecond = 20;
+
+    @Value("${bidding.rate-limit.per-bidder.burst:40}")
+    private int bidderBurst = 40;
+
+    @Value("${bidding.rate-limit.per-auction.per-second:5}")
+    private double auctionPerSecond = 5;
+
+    @Value("${bidding.rate-limit.per-auction.burst:10}")
+    private int auctionBurst = 10;
+
+    @Value("${bidding.rate-limit.redis:false}")
+    private boolean redisEnabled;
+
+    @Value("${bidding.batch.max-entries:40}")
+    private int batchMaxEntries = 40;
+
+    public BidRateLimiter(StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.bidderThrottled = Counter.builder("bids.throttled")
+                .description("Bid requests rejected by the rate limiter")
+                .tag("scope", "bidder")
+                .register(meterRegistry);
+        this.auctionThrottled = Counter.builder("bids.throttled")
+                .description("Bid requests rejected by the rate limiter")
+                .tag("scope", "auction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A batch takes one bidder token per entry, so batches larger than the
+     * bidder burst would always be rejected; refuse such a configuration.
+     */
+    @PostConstruct
+    public void checkBatchLimit() {
+        if (enabled && batchMaxEntries > bidderBurst) {
+            throw new IllegalStateException("bidding.batch.max-entries (" + batchMaxEntries
+                    + ") must not exceed bidding.rate-limit.per-bidder.burst (" + bidderBurst + ")");
+        }
+    }
+
+    /**
+     * Takes a token for the bidder and, when {@code itemId} is given, for the
+     * bidder on that item's auction.
+     *
+     * @return 0 if the request may go ahead, otherwise the milliseconds until it
+     *         would be allowed
+     */
+    public long acquire(String bidderEmail, Long itemId) {
+        return acquire(bidderEmail, 1, itemId != null ? Map.of(itemId, 1) : Map.of());
+    }
+
+    /**
+     * Takes one token per batch entry for the bidder and one per entry for the
+     * bidder on the entry's auction, all or none. A batch that could never fit
+     * in the buckets, even when they are full, is rejected outright.
+     *
+     * @return 0 if the batch may go ahead, otherwise the milliseconds until it
+     *         would be allowed
+     */
+    public long acquireBatch(String bidderEmail, List<Long> itemIds) {
+        if (!enabled) {
+            return 0;
+        }
+        Map<Long, Integer> tokensByItem = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            if (itemId != null) {
+                tokensByItem.merge(itemId, 1, Integer::sum);
+            }
+        }
+        if (itemIds.size() > bidderBurst) {
+            throw new RuntimeException("A batch can hold at most " + bidderBurst + " bids");
+        }
+        if (tokensByItem.values().stream().anyMatch(tokens -> tokens > auctionBurst)) {
+            throw new RuntimeException("A batch can hold at most " + auctionBurst + " bids on one item");
+        }
+        return acquire(bidderEmail, itemIds.size(), tokensByItem);
+    }
+
+    private long acquire(String bidderEmail, int tokens, Map<Long, Integer> tokensByItem) {
+        if (!enabled) {
+            return 0;
+        }
+        if (redisEnabled) {
+            try {
+                return acquireInRedis(bidderEmail, tokens, tokensByItem);
+            } catch (DataAccessException e) {
+                log.warn("Bid rate limit not checked in Redis, using local buckets: {}", e.getMessage());
+            }
+        }
+
+        long now = System.nanoTime();
+        long bidderInterval = intervalNanos(bidderPerSecond);
+        AtomicLong bidder = bucket("b:" + bidderEmail, now);
+        long wait = take(bidder, bidderInterval * tokens, bidderInterval * bidderBurst, now);
+        if (wait > 0) {
+            bidderThrottled.increment();
+            return toMillis(wait);
+        }
+        long auctionInterval = intervalNanos(auctionPerSecond);
+        Map<AtomicLong, Long> charged = new HashMap<>();
+        for (Map.Entry<Long, Integer> item : tokensByItem.entrySet()) {
+            AtomicLong bucket = bucket("a:" + bidderEmail + ":" + item.getKey(), now);
+            long cost = auctionInterval * item.getValue();
+            wait = take(bucket, cost, auctionInterval * auctionBurst, now);
+            if (wait > 0) {
+                // Not charged for a rejected request
+                bidder.addAndGet(-bidderInterval * tokens);
+                charged.forEach((chargedBucket, chargedCost) -> chargedBucket.addAndGet(-chargedCost));
+                auctionThrottled.increment();
+                return toMillis(wait);
+            }
+            charged.put(bucket, cost);
+        }
+        return 0;
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private static long take(AtomicLong bucket, long cost, long capacity, long now) {
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + cost;
+            long wait = next - now - capacity;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long acquireInRedis(String bidderEmail, int tokens, Map<Long, Integer> tokensByItem) {
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>(List.of(
+                String.valueOf(intervalNanos(bidderPerSecond) / 1000), String.valueOf(bidderBurst),
+                String.valueOf(intervalNanos(auctionPerSecond) / 1000), String.valueOf(auctionBurst)));
+        keys.add(REDIS_KEY_PREFIX + bidderEmail);
+        args.add(String.valueOf(tokens));
+        tokensByItem.forEach((itemId, itemTokens) -> {
+            keys.add(REDIS_KEY_PREFIX + bidderEmail + ":" + itemId);
+            args.add(String.valueOf(itemTokens));
+        });
+        List<?> result = stringRedisTemplate.execute(rateLimitScript, keys, args.toArray());
+        long rejectedBy = ((Number) result.get(0)).longValue();
+        if (rejectedBy == 0) {
+            return 0;
+        }
+        (rejectedBy == 1 ? bidderThrottled : auctionThrottled).increment();
+        return toMillis(TimeUnit.MICROSECONDS.toNanos(((Number) result.get(1)).longValue()));
+    }
+
+    /**
+     * Drops buckets that have refilled completely; a missing bucket behaves
+     * the same as a full one.
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    private static long intervalNanos(double perSecond) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos + 999_999));
+    }
+}
@@ -1,13 +1,33 @@
 package com.marketplace.service;
 
+import com.marketplace.dto.BatchBidRequest;
+import com.marketplace.dto.AuctionExtension;
+import com.marketplace.dto.BatchBidResult;
+import com.marketplace.dto.BidResponse;
+import com.marketplace.engine.AfterTransaction;
+import com.marketplace.engine.AuctionBidQueues;
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.AuctionPriceSnapshots;
+import com.marketplace.engine.AuctionProxyBook;
+import com.marketplace.engine.BatchBidExecutor;
+import com.marketplace.engine.EndingSoonFeed;
+import com.marketplace.engine.Money;
+import com.marketplace.engine.PartitionedBidEngine;
+import com.marketplace.engine.ProxyBidBooks;
+import com.marketplace.engine.ProxyBidResolver;
+import com.marketplace.engine.SoftCloseRule;
 import com.marketplace.entity.*;
 import com.marketplace.repository.*;
 import com.marketplace.enums.AuctionStatus;
 import com.marketplace.enums.BidStatus;
+import com.marketplace.enums.BiddingMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import com.marketplace.event.BidPlacedEvent;
@@ -15,9 +35,13 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -29,32 +53,316 @@ public class BidService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final ProxyBidRepository proxyBidRepository;
-    private final RedisLockService redisLockService;
+    private final LockService lockService;
     private final SimpMessagingTemplate messagingTemplate;
     private final ApplicationEventPublisher eventPublisher; // Injected ApplicationEventPublisher
-
-    private static final long LOCK_TIMEOUT_MS = 5000;
+    private final PartitionedBidEngine bidEngine;
+    private final ProxyBidBooks proxyBidBooks;
+    private final RedisBidService redisBidService;
+    private final JournalBidService journalBidService;
+    private final AuctionPriceSnapshots priceSnapshots;
+    private final BatchBidExecutor batchBidExecutor;
+    private final AuctionBidQueues auctionBidQueues;
+    private final TransactionTemplate transactionTemplate;
+    private final AuctionCloseSchedule closeSchedule;
+    private final SoftCloseRule softClose;
+    private final EndingSoonFeed endingSoonFeed;
+
+    private static final long LOCK_TIMEOUT_MS = 2000; // Lease, renewed while a bid is still running
     private static final long LOCK_WAIT_MS = 3000;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99"); // Bid columns are DECIMAL(10, 2)
+
+    @Value("${bidding.mode:LOCK}")
+    private BiddingMode biddingMode = BiddingMode.LOCK;
+
+    @Value("${bidding.optimistic.max-attempts:5}")
+    private int optimisticMaxAttempts = 5;
+
+    @Value("${bidding.batch.max-entries:40}")
+    private int batchMaxEntries = 40;
 
-    @Transactional
     public Bid placeBid(Long itemId, BigDecimal amount, BigDecimal maxProxyAmount, String userEmail) {
-        Auction auction = auctionRepository.findByItemId(itemId)
-                .orElseThrow(() -> new RuntimeException("Auction not found for this item"));
+        validateAmounts(amount, maxProxyAmount);
+        Long auctionId = resolveAuctionId(itemId, amount);
+        return placeBidOnAuction(itemId, auctionId, amount, maxProxyAmount, userEmail);
+    }
+
+    /**
+     * Same as {@link #placeBid} but runs the bid on the auction's queue, so the
+     * calling thread does not wait for the lock or partition. Bids that are
+     * already too low still fail right away, without taking a queue slot.
+     */
+    public CompletableFuture<Bid> placeBidAsync(Long itemId, BigDecimal amount, BigDecimal maxProxyAmount,
+            String userEmail) {
+        Long auctionId;
+        try {
+            validateAmounts(amount, maxProxyAmount);
+            auctionId = resolveAuctionId(itemId, amount);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return auctionBidQueues.submit(auctionId,
+                () -> placeBidOnAuction(itemId, auctionId, amount, maxProxyAmount, userEmail));
+    }
+
+    /**
+     * Places several bids of one bidder. Entries are grouped by auction; each
+     * group runs in request order under a single lock or partition task, and
+     * groups run in parallel. Every entry gets its own result, so a rejected bid
+     * does not affect the others.
+     */
+    public List<BatchBidResult> placeBids(List<BatchBidRequest.Entry> entries, String userEmail) {
+        if (entries == null || entries.isEmpty()) {
+            throw new RuntimeException("No bids given");
+        }
+        if (entries.size() > batchMaxEntries) {
+            throw new RuntimeException("A batch can hold at most " + batchMaxEntries + " bids");
+        }
+
+        BatchBidResult[] results = new BatchBidResult[entries.size()];
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            BatchBidRequest.Entry entry = entries.get(i);
+            try {
+                if (entry.getItemId() == null || entry.getAmount() == null) {
+                    throw new RuntimeException("itemId and amount are required");
+                }
+                validateAmounts(entry.getAmount(), entry.getMaxProxyAmount());
+                Long auctionId = resolveAuctionId(entry.getItemId(), entry.getAmount());
+                groups.computeIfAbsent(auctionId, id -> new ArrayList<>()).add(i);
+            } catch (RuntimeException e) {
+                results[i] = batchResult(i, entry, null, e);
+            }
+        }
+
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        groups.forEach((auctionId, indexes) -> running.add(batchBidExecutor.submit(() -> {
+            placeBidGroup(auctionId, indexes, entries, userEmail, results);
+            return null;
+        })));
+        running.forEach(CompletableFuture::join);
+        return Arrays.asList(results);
+    }
+
+    private void placeBidGroup(Long auctionId, List<Integer> indexes, List<BatchBidRequest.Entry> entries,
+            String userEmail, BatchBidResult[] results) {
+        if (biddingMode == BiddingMode.PARTITIONED) {
+            bidEngine.execute(auctionId, () -> {
+                applyBidGroup(auctionId, indexes, entries, userEmail, results);
+                return null;
+            });
+            return;
+        }
+        if (biddingMode != BiddingMode.LOCK) {
+            // The other modes take no per-auction lock that a group could share
+            for (int i : indexes) {
+                BatchBidRequest.Entry entry = entries.get(i);
+                try {
+                    Bid bid = placeBidOnAuction(entry.getItemId(), auctionId, entry.getAmount(),
+                            entry.getMaxProxyAmount(), userEmail);
+                    results[i] = batchResult(i, entry, bid, null);
+                } catch (RuntimeException e) {
+                    results[i] = batchResult(i, entry, null, e);
+                }
+            }
+            return;
+        }
 
-        String lockKey = "auction:" + auction.getId();
-        boolean locked = redisLockService.acquireLockWithRetry(lockKey, LOCK_WAIT_MS, LOCK_TIMEOUT_MS);
+        String lockKey = "auction:" + auctionId;
+        if (!lockService.acquireLockWithRetry(lockKey, LOCK_WAIT_MS, LOCK_TIMEOUT_MS)) {
+            RuntimeException busy = new RuntimeException("System busy, please try again.");
+            indexes.forEach(i -> results[i] = batchResult(i, entries.get(i), null, busy));
+            return;
+        }
+        try {
+            applyBidGroup(auctionId, indexes, entries, userEmail, results);
+        } finally {
+            lockService.releaseLock(lockKey);
+        }
+    }
+
+    /** Applies a group's bids one after another, each in its own transaction. */
+    private void applyBidGroup(Long auctionId, List<Integer> indexes, List<BatchBidRequest.Entry> entries,
+            String userEmail, BatchBidResult[] results) {
+        for (int i : indexes) {
+            BatchBidRequest.Entry entry = entries.get(i);
+            try {
+                Bid bid = applyBid(auctionId, entry.getAmount(), entry.getMaxProxyAmount(), userEmail);
+                results[i] = batchResult(i, entry, bid, null);
+            } catch (RuntimeException e) {
+                results[i] = batchResult(i, entry, null, e);
+            }
+        }
+    }
+
+    private static BatchBidResult batchResult(int index, BatchBidRequest.Entry entry, Bid bid,
+            RuntimeException error) {
+        return BatchBidResult.builder()
+                .index(index)
+                .itemId(entry.getItemId())
+                .accepted(error == null)
+                .bid(bid != null ? BidResponse.from(bid, entry.getItemId()) : null)
+                .error(error != null ? error.getMessage() : null)
+                .build();
+    }
+
+    /**
+     * Checks bid amounts once on entry, the same way for every bidding mode,
+     * so no mode fails on them later inside the bid transaction.
+     */
+    private static void validateAmounts(BigDecimal amount, BigDecimal maxProxyAmount) {
+        validateAmount("Amount", amount);
+        if (maxProxyAmount != null) {
+            validateAmount("Maximum proxy amount", maxProxyAmount);
+        }
+    }
+
+    private static void validateAmount(String name, BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new RuntimeException(name + " must be positive");
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new RuntimeException(name + " must have at most two decimal places");
+        }
+        if (amount.compareTo(MAX_AMOUNT) > 0) {
+            throw new RuntimeException(name + " must be at most " + MAX_AMOUNT);
+        }
+    }
+
+    private Long resolveAuctionId(Long itemId, BigDecimal amount) {
+        // Bids already below the last known minimum fail here, before any lock or query
+        AuctionPriceSnapshots.Snapshot snapshot = priceSnapshots.rejectIfStale(itemId, amount);
+
+        // Only the id is resolved here; the entity is loaded inside the bid's own
+        // transaction so it is never served stale from an earlier persistence context
+        return snapshot != null ? snapshot.auctionId()
+                : auctionRepository.findIdByItemId(itemId)
+                        .orElseThrow(() -> new RuntimeException("Auction not found for this item"));
+    }
+
+    private Bid placeBidOnAuction(Long itemId, Long auctionId, BigDecimal amount, BigDecimal maxProxyAmount,
+            String userEmail) {
+        if (biddingMode == BiddingMode.PARTITIONED) {
+            // The owning partition thread is the only writer for this auction
+            return bidEngine.execute(auctionId, () -> applyBid(auctionId, amount, maxProxyAmount, userEmail));
+        }
+        if (biddingMode == BiddingMode.REDIS_SCRIPT) {
+            return acceptBidInRedis(itemId, auctionId, amount, maxProxyAmount, userEmail);
+        }
+        if (biddingMode == BiddingMode.JOURNAL) {
+            return acceptBidInJournal(itemId, auctionId, amount, maxProxyAmount, userEmail);
+        }
+        if (biddingMode == BiddingMode.OPTIMISTIC) {
+            return applyBidOptimistically(auctionId, amount, maxProxyAmount, userEmail);
+        }
+
+        String lockKey = "auction:" + auctionId;
+        boolean locked = lockService.acquireLockWithRetry(lockKey, LOCK_WAIT_MS, LOCK_TIMEOUT_MS);
 
         if (!locked) {
             throw new RuntimeException("System busy, please try again.");
         }
 
         try {
-            // Refresh auction entity to get latest state
-            auction = auctionRepository.findById(auction.getId()).orElseThrow();
-            return processBid(auction, amount, maxProxyAmount, userEmail);
+            return applyBid(auctionId, amount, maxProxyAmount, userEmail);
         } finally {
-            redisLockService.releaseLock(lockKey);
+            lockService.releaseLock(lockKey);
+        }
+    }
+
+    /**
+     * Runs a bid in its own transaction, committed before the caller releases the
+     * auction's lock or partition slot so the next bid sees this one's writes.
+     */
+    private Bid applyBid(Long auctionId, BigDecimal amount, BigDecimal maxProxyAmount, String userEmail) {
+        return transactionTemplate.execute(status -> {
+            // Refresh auction entity to get latest state. Outside OPTIMISTIC mode the
+            // row stays locked, so a close cannot commit between this read and the
+            // bid's write of the whole row
+            Auction auction = (biddingMode == BiddingMode.OPTIMISTIC
+                    ? auctionRepository.findById(auctionId)
+                    : auctionRepository.findByIdForUpdate(auctionId)).orElseThrow();
+            return processBid(auction, amount, maxProxyAmount, userEmail);
+        });
+    }
+
+    /**
+     * Applies the bid without any lock: the auction row is only updated if its
+     * highest bid is still the one this attempt read, otherwise the attempt rolls
+     * back and is retried against the new state.
+     */
+    private Bid applyBidOptimistically(Long auctionId, BigDecimal amount, BigDecimal maxProxyAmount,
+            String userEmail) {
+        for (int attempt = 1; attempt <= optimisticMaxAttempts; attempt++) {
+            try {
+                return applyBid(auctionId, amount, maxProxyAmount, userEmail);
+            } catch (BidConflictException | ConcurrencyFailureException e) {
+                log.debug("Bid conflict on auction {} (attempt {})", auctionId, attempt);
+            }
+        }
+        throw new RuntimeException("System busy, please try again.");
+    }
+
+    /**
+     * Accepts the bid with a single Redis script call. The returned bid is not
+     * persisted yet: AcceptedBidWriter inserts it shortly after, so it has no id.
+     */
+    private Bid acceptBidInRedis(Long itemId, Long auctionId, BigDecimal amount, BigDecimal maxProxyAmount,
+            String userEmail) {
+        User bidder = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        RedisBidService.Acceptance acceptance = redisBidService.acceptBid(auctionId, bidder.getId(), amount,
+                maxProxyAmount);
+        priceSnapshots.record(itemId, auctionId, acceptance.minNextBid(), acceptance.endTime());
+        if (acceptance.extended()) {
+            announceExtension(auctionId, itemId, acceptance.endTime());
+        }
+
+        return acceptedBid(itemId, auctionId, bidder, acceptance.winnerId(), acceptance.amount(),
+                acceptance.autoBid(), acceptance.proxyBid());
+    }
+
+    /**
+     * Accepts the bid on the auction's partition thread against its in-memory
+     * state and answers once the bid is in the fsynced journal. Like the Redis
+     * mode, the returned bid is persisted later by AcceptedBidWriter.
+     */
+    private Bid acceptBidInJournal(Long itemId, Long auctionId, BigDecimal amount, BigDecimal maxProxyAmount,
+            String userEmail) {
+        User bidder = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        JournalBidService.Acceptance acceptance = bidEngine.execute(auctionId,
+                () -> journalBidService.acceptBid(auctionId, bidder.getId(), Money.of(amount),
+                        Money.ofNullable(maxProxyAmount)));
+        journalBidService.awaitDurable(acceptance);
+        priceSnapshots.record(itemId, auctionId, acceptance.minNextBid().toBigDecimal(), acceptance.endTime());
+        if (acceptance.extended()) {
+            announceExtension(auctionId, itemId, acceptance.endTime());
         }
+
+        return acceptedBid(itemId, auctionId, bidder, acceptance.winnerId(), acceptance.amount().toBigDecimal(),
+                acceptance.autoBid(), acceptance.proxyBid());
+    }
+
+    private Bid acceptedBid(Long itemId, Long auctionId, User bidder, Long winnerId, BigDecimal amount,
+            boolean autoBid, boolean proxyBid) {
+        User leader = winnerId.equals(bidder.getId()) ? bidder : userRepository.getReferenceById(winnerId);
+        Bid bid = Bid.builder()
+                .auction(auctionRepository.getReferenceById(auctionId))
+                .bidder(leader)
+                .amount(amount)
+                .status(BidStatus.ACTIVE)
+                .isAutoBid(autoBid)
+                .isProxyBid(proxyBid)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        // The auction is an uninitialized reference that may be sent from a bid worker
+        // thread without a session, so the broadcast carries ids only
+        messagingTemplate.convertAndSend("/topic/auction/" + auctionId, BidResponse.from(bid, itemId));
+        return bid;
     }
 
     private Bid processBid(Auction auction, BigDecimal amount, BigDecimal maxProxyAmount, String userEmail) {
@@ -69,7 +377,11 @@ public class BidService {
             // But realistically, we should expect ACTIVE.
             // For robustness, if start time passed and not closed, treat as active.
             if (auction.getStatus() == AuctionStatus.SCHEDULED && now.isAfter(auction.getStartTime())) {
-                auction.setStatus(AuctionStatus.ACTIVE);
+                // The conditional update promotes the status itself; the entity stays clean
+                // so a flush can never write back the stale row this attempt read
+                if (biddingMode != BiddingMode.OPTIMISTIC) {
+                    auction.setStatus(AuctionStatus.ACTIVE);
+                }
             } else {
                 throw new RuntimeException("Auction is not active");
             }
@@ -100,83 +412,55 @@ public class BidService {
             throw new RuntimeException("Bid must be at least " + minBidAmount);
         }
 
-        // Determine effective max amount for this user
-        BigDecimal effectiveMax = maxProxyAmount != null && maxProxyAmount.compareTo(amount) > 0 ? maxProxyAmount
-                : amount;
-
         // 2. Handle Proxy Bids Competition
-        // Fetch existing active proxy bid for *other* users
-        List<ProxyBid> activeProxyBids = proxyBidRepository.findByAuctionIdAndIsActiveTrue(auction.getId());
-
-        // Filter out current bidder's existing proxy if any (update it later)
-        ProxyBid highestOpponentProxy = activeProxyBids.stream()
-                .filter(pb -> !pb.getBidder().getId().equals(bidder.getId()))
-                .max(Comparator.comparing(ProxyBid::getMaxAmount))
-                .orElse(null);
+        // Highest active proxy of *other* users, answered from the auction's ranked book
+        // Concurrent optimistic attempts each work on a private copy of the book
+        AuctionProxyBook proxyBook = biddingMode == BiddingMode.OPTIMISTIC ? proxyBidBooks.forIsolatedUpdate(auction)
+                : proxyBidBooks.forUpdate(auction);
+        ProxyBidResolver.Resolution resolution = ProxyBidResolver.resolve(proxyBook, bidder.getId(),
+                Money.of(amount), Money.ofNullable(maxProxyAmount), Money.of(minIncrement));
 
         // Save/Update current user's proxy bid
-        updateOrCreateProxyBid(auction, bidder, effectiveMax);
+        if (resolution.raisesProxy()) {
+            updateOrCreateProxyBid(auction, bidder, resolution.effectiveMax(), proxyBook);
+        }
 
         Bid newBid = null;
 
-        if (highestOpponentProxy == null) {
-            // No competition from proxy. Just place the bid.
-            // If the user placed a proxy bid significantly higher than current price, we
-            // only bid the minimum necessary (amount)
-            // Actually, the 'amount' passed is the *visible* bid they want to place NOW.
-            newBid = createBid(auction, bidder, amount, false, false);
-            updateAuctionAndItem(auction, item, newBid);
-        } else {
-            // Competition!
-            // Case A: Incoming (EffectiveMax) > Opponent (Max)
-            if (effectiveMax.compareTo(highestOpponentProxy.getMaxAmount()) > 0) {
-                // Opponent bids up to their max
-                // Check if we need to generate an intermediate bid for the opponent to show
-                // they were outbid at their max
-                // Typically we just jump to OpponentMax + Increment for the Winner.
-
-                // But strictly, we should record the opponent's max outbid.
-                // For simplicity: Winner takes it at OpponentMax + Increment.
-                BigDecimal priceToWin = highestOpponentProxy.getMaxAmount().add(minIncrement);
-
-                if (priceToWin.compareTo(effectiveMax) > 0) {
-                    priceToWin = effectiveMax; // Cap at our max (shouldn't happen given if check)
-                }
+        switch (resolution.outcome()) {
+            case UNCONTESTED -> {
+                // No competition from proxy. Just place the bid.
+                // If the user placed a proxy bid significantly higher than current price, we
+                // only bid the minimum necessary (amount)
+                // Actually, the 'amount' passed is the *visible* bid they want to place NOW.
+                newBid = createBid(auction, bidder, amount, false, false);
+                updateAuctionAndItem(auction, item, newBid, proxyBook);
+            }
+            case OUTBIDS_PROXY -> {
+                // Competition!
+                // Case A: Incoming (EffectiveMax) > Opponent (Max)
+                // For simplicity: Winner takes it at OpponentMax + Increment, capped at our max.
 
                 // Create a bid for the opponent at their max (optional, shows "Auto-outbid")
                 // createBid(auction, highestOpponentProxy.getBidder(),
                 // highestOpponentProxy.getMaxAmount(), true, true);
 
                 // Create winning bid for current user
-                newBid = createBid(auction, bidder, priceToWin, true, maxProxyAmount != null);
-                updateAuctionAndItem(auction, item, newBid);
-
-                // Deactivate opponent proxy
-                // highestOpponentProxy.setIsActive(false); // It's beaten
-                // proxyBidRepository.save(highestOpponentProxy);
-
-            } else {
+                newBid = createBid(auction, bidder, resolution.amount().toBigDecimal(), true, resolution.proxyBid());
+                updateAuctionAndItem(auction, item, newBid, proxyBook);
+            }
+            case PROXY_HOLDS -> {
                 // Case B: Opponent (Max) >= Incoming (EffectiveMax)
                 // Opponent wins.
                 // Current user places their max bid (amount)
                 createBid(auction, bidder, amount, false, false); // The bid that fails
 
-                // Opponent auto-bids to beat it
-                BigDecimal priceToBeat = amount.add(minIncrement);
-                if (priceToBeat.compareTo(highestOpponentProxy.getMaxAmount()) > 0) {
-                    priceToBeat = highestOpponentProxy.getMaxAmount();
-                }
-
-                // If priceToBeat matches existing price, do nothing?
-                // No, we must ensure the price goes up.
-
-                Bid autoBid = createBid(auction, highestOpponentProxy.getBidder(), priceToBeat, true, true);
-                updateAuctionAndItem(auction, item, autoBid);
+                // Opponent auto-bids to beat it, capped at their max
+                User opponent = userRepository.getReferenceById(resolution.winnerId());
+                Bid autoBid = createBid(auction, opponent, resolution.amount().toBigDecimal(), true, true);
+                updateAuctionAndItem(auction, item, autoBid, proxyBook);
 
                 // Current user is NOT the winner.
-                // We return the *attempted* bid? Or the current highest?
-                // Usually return the confirmed bid for the user, but throw/notify they are
-                // outbid.
                 // For this API, let's return the latest state.
                 return autoBid; // The winning bid (opponent's)
             }
@@ -185,7 +469,8 @@ public class BidService {
         return newBid;
     }
 
-    private void updateOrCreateProxyBid(Auction auction, User bidder, BigDecimal maxAmount) {
+    private void updateOrCreateProxyBid(Auction auction, User bidder, Money max, AuctionProxyBook proxyBook) {
+        BigDecimal maxAmount = max.toBigDecimal();
         Optional<ProxyBid> existing = proxyBidRepository.findByAuctionIdAndBidderId(auction.getId(), bidder.getId());
         if (existing.isPresent()) {
             ProxyBid pb = existing.get();
@@ -193,6 +478,7 @@ public class BidService {
                 pb.setMaxAmount(maxAmount);
                 pb.setIsActive(true);
                 proxyBidRepository.save(pb);
+                proxyBook.upsert(bidder.getId(), max);
             }
         } else {
             ProxyBid pb = ProxyBid.builder()
@@ -202,7 +488,17 @@ public class BidService {
                     .currentAmount(BigDecimal.ZERO)
                     .isActive(true)
                     .build();
-            proxyBidRepository.save(pb);
+            if (biddingMode == BiddingMode.OPTIMISTIC) {
+                try {
+                    // A concurrent first proxy of the same bidder hits unique_active_proxy here
+                    proxyBidRepository.saveAndFlush(pb);
+                } catch (DataIntegrityViolationException e) {
+                    throw new BidConflictException(); // The retry updates the other attempt's proxy
+                }
+            } else {
+                proxyBidRepository.save(pb);
+            }
+            proxyBook.upsert(bidder.getId(), max);
         }
     }
 
@@ -218,16 +514,69 @@ public class BidService {
         return bidRepository.save(bid);
     }
 
-    private void updateAuctionAndItem(Auction auction, Item item, Bid highestBid) {
-        auction.setHighestBidId(highestBid.getId());
-        auction.setBidCount(auction.getBidCount() + 1);
-        auction.setWinner(highestBid.getBidder()); // Temporarily set winner
-        auctionRepository.save(auction);
+    private void updateAuctionAndItem(Auction auction, Item item, Bid highestBid, AuctionProxyBook proxyBook) {
+        // Soft close: the new end time is written with the bid, in the same row update
+        LocalDateTime endTime = softClose.endTimeAfterBid(auction.getEndTime(), LocalDateTime.now());
+        boolean extended = endTime.isAfter(auction.getEndTime());
+        if (biddingMode == BiddingMode.OPTIMISTIC) {
+            compareAndSetAuctionAndItem(auction, item, highestBid, endTime);
+        } else {
+            auction.setEndTime(endTime);
+            auction.setHighestBidId(highestBid.getId());
+            auction.setBidCount(auction.getBidCount() + 1);
+            auction.setWinner(highestBid.getBidder()); // Temporarily set winner
+            auctionRepository.save(auction);
+
+            item.setCurrentPrice(highestBid.getAmount());
+            itemRepository.save(item);
+        }
+        proxyBook.markSynced(proxyBook.syncedBidCount() + 1);
 
-        item.setCurrentPrice(highestBid.getAmount());
-        itemRepository.save(item);
+        BigDecimal minNextBid = highestBid.getAmount().add(auction.getMinBidIncrement());
+        AfterTransaction.onCommit(() -> priceSnapshots.record(item.getId(), auction.getId(), minNextBid, endTime));
+        if (extended) {
+            AfterTransaction.onCommit(() -> announceExtension(auction.getId(), item.getId(), endTime));
+        }
 
         // Broadcast update via WebSocket
         messagingTemplate.convertAndSend("/topic/auction/" + auction.getId(), highestBid);
     }
+
+    /**
+     * Moves the auction's close and ending-soon listing to its extended end time
+     * and tells its watchers.
+     * Only the closer of the auction's node is rescheduled; others notice the
+     * new end time when they try to close it.
+     */
+    private void announceExtension(Long auctionId, Long itemId, LocalDateTime endTime) {
+        closeSchedule.schedule(auctionId, endTime);
+        endingSoonFeed.extend(auctionId, endTime);
+        messagingTemplate.convertAndSend("/topic/auction/" + auctionId + "/extended", AuctionExtension.builder()
+                .auctionId(auctionId)
+                .itemId(itemId)
+                .endTime(endTime)
+                .build());
+    }
+
+    /**
+     * Compare-and-set of the auction row on the highest bid id this attempt read.
+     * The item price is updated in the same transaction, behind the auction row
+     * lock the conditional update holds, so the two cannot drift apart.
+     */
+    private void compareAndSetAuctionAndItem(Auction auction, Item item, Bid highestBid, LocalDateTime endTime) {
+        long expectedHighestBidId = auction.getHighestBidId() != null ? auction.getHighestBidId() : 0L;
+        int updated = auctionRepository.compareAndSetHighestBid(auction.getId(), expectedHighestBidId,
+                highestBid.getId(), highestBid.getBidder(), endTime, LocalDateTime.now());
+        if (updated == 0) {
+            throw new BidConflictException(); // Rolls back this attempt's bids and proxy changes
+        }
+        itemRepository.updateCurrentPrice(item.getId(), highestBid.getAmount());
+    }
+
+    /** Another bid changed the auction between this attempt's read and its update. */
+    private static class BidConflictException extends RuntimeException {
+        BidConflictException() {
+            super("Auction changed concurrently", null, false, false);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package com.marketplace.service;
+
+import com.marketplace.engine.LockContention;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Locks held in this JVM, for a single node: no round trip to Redis per
+ * acquisition and release, and a release wakes the next waiter directly.
+ *
+ * Leases, fencing tokens and the watchdog behave as with Redis, so a holder
+ * that hangs or dies still loses its lock when the lease runs out. Locks do
+ * not exclude other nodes; run more than one node with the {@code REDIS}
+ * backend.
+ */
+@Service
+@ConditionalOnProperty(name = "bidding.lock.backend", havingValue = "IN_MEMORY")
+public class InMemoryLockService extends StripedLockService {
+
+    private final Map<String, HeldLock> locks = new ConcurrentHashMap<>();
+    private final AtomicLong fence = new AtomicLong();
+
+    private record HeldLock(long token, long expiresAt) {
+
+        private boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+
+    public InMemoryLockService(LockContention contention) {
+        super(contention);
+    }
+
+    @Override
+    protected long setLock(String key, long leaseMs) {
+        long now = System.nanoTime();
+        long[] token = new long[1];
+        locks.compute(key, (k, current) -> {
+            if (current != null && !current.isExpired(now)) {
+                return current;
+            }
+            token[0] = fence.incrementAndGet();
+            return new HeldLock(token[0], now + TimeUnit.MILLISECONDS.toNanos(leaseMs));
+        });
+        return token[0];
+    }
+
+    @Override
+    protected boolean deleteLock(String key, long token) {
+        boolean[] deleted = new boolean[1];
+        locks.computeIfPresent(key, (k, current) -> {
+            deleted[0] = current.token() == token && !current.isExpired(System.nanoTime());
+            return current.token() == token ? null : current;
+        });
+        if (deleted[0]) {
+            lockReleased(key);
+        }
+        return deleted[0];
+    }
+
+    @Override
+    protected boolean renewLock(String key, long token, long leaseMs) {
+        long now = System.nanoTime();
+        HeldLock renewed = locks.computeIfPresent(key, (k, current) -> current.token() == token
+                && !current.isExpired(now)
+                ? new HeldLock(token, now + TimeUnit.MILLISECONDS.toNanos(leaseMs))
+                : current);
+        return renewed != null && renewed.token() == token && !renewed.isExpired(now);
+    }
+}
@@ -1,5 +1,8 @@
 package com.marketplace.service;
 
+import com.marketplace.engine.AfterTransaction;
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.EndingSoonFeed;
 import com.marketplace.entity.Auction;
 import com.marketplace.entity.Item;
 import com.marketplace.entity.ItemImage;
@@ -27,6 +30,8 @@ public class ItemService {
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
     private final AuctionRepository auctionRepository;
+    private final AuctionCloseSchedule closeSchedule;
+    private final EndingSoonFeed endingSoonFeed;
 
     @Transactional
     public Item createItem(Item item, MultipartFile image, String userEmail) {
@@ -80,6 +85,11 @@ public class ItemService {
                     .status(AuctionStatus.ACTIVE)
                     .build();
             auctionRepository.save(auction);
+            AfterTransaction.onCommit(() -> {
+                closeSchedule.schedule(auction.getId(), auction.getEndTime());
+                endingSoonFeed.put(new EndingSoonFeed.Listing(auction.getId(), savedItem.getId(),
+                        savedItem.getTitle(), savedItem.getCategory(), auction.getEndTime()));
+            });
         }
 
         return savedItem;
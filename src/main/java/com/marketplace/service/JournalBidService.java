@@ -0,0 +1,207 @@
+package com.marketplace.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.engine.AuctionProxyBook;
+import com.marketplace.engine.BidJournal;
+import com.marketplace.engine.Money;
+import com.marketplace.engine.ProxyBidBooks;
+import com.marketplace.engine.ProxyBidResolver;
+import com.marketplace.engine.SoftCloseRule;
+import com.marketplace.entity.Auction;
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.repository.AuctionRepository;
+import com.marketplace.scheduler.AcceptedBidWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bid acceptance for {@code bidding.mode=JOURNAL}: bids are validated against an
+ * in-memory copy of each auction, mirroring BidService.processBid, and recorded
+ * in the {@link BidJournal}. AcceptedBidWriter persists them in batches later.
+ *
+ * Each auction's state is only touched from its partition thread, so
+ * {@link #acceptBid} must run on {@link com.marketplace.engine.PartitionedBidEngine}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JournalBidService {
+
+    private final BidJournal bidJournal;
+    private final AuctionRepository auctionRepository;
+    private final ProxyBidBooks proxyBidBooks;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SoftCloseRule softClose;
+
+    private final Map<Long, AuctionState> auctions = new ConcurrentHashMap<>();
+
+    @Value("${bidding.journal.durable-timeout-ms:2000}")
+    private long durableTimeoutMs = 2000;
+
+    /**
+     * Outcome of a journaled bid: the auction's leader and price after the bid,
+     * plus the minimum next bid and end time for the local price snapshot.
+     * {@code extended} tells whether the bid moved the end time by a soft close.
+     */
+    public record Acceptance(long sequence, Long winnerId, Money amount, boolean autoBid, boolean proxyBid,
+            Money minNextBid, LocalDateTime endTime, boolean extended) {
+    }
+
+    private static final class AuctionState {
+        private Long itemId;
+        private AuctionStatus status;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private Long sellerId;
+        private Money price;
+        private Money increment;
+        private Money reserve;
+        private int bidCount;
+        private AuctionProxyBook proxies;
+    }
+
+    public Acceptance acceptBid(Long auctionId, Long bidderId, Money amount, Money maxProxyAmount) {
+        AuctionState auction = auctions.computeIfAbsent(auctionId, this::load);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (auction.status != AuctionStatus.ACTIVE
+                && !(auction.status == AuctionStatus.SCHEDULED && now.isAfter(auction.startTime))) {
+            throw new RuntimeException("Auction is not active");
+        }
+        if (now.isAfter(auction.endTime)) {
+            throw new RuntimeException("Auction has ended");
+        }
+        if (auction.sellerId.equals(bidderId)) {
+            throw new RuntimeException("You cannot bid on your own item");
+        }
+
+        Money minBidAmount = auction.price.plus(auction.increment);
+        if (auction.bidCount == 0 && auction.reserve != null) {
+            minBidAmount = auction.reserve;
+        }
+        if (amount.isLessThan(minBidAmount)) {
+            throw new RuntimeException("Bid must be at least " + minBidAmount);
+        }
+
+        ProxyBidResolver.Resolution resolution = ProxyBidResolver.resolve(auction.proxies, bidderId, amount,
+                maxProxyAmount, auction.increment);
+        AcceptedBidWriter.ProxyRow proxyUpdate = resolution.raisesProxy()
+                ? new AcceptedBidWriter.ProxyRow(bidderId, resolution.effectiveMax().cents())
+                : null;
+
+        List<AcceptedBidWriter.BidRow> bids = new ArrayList<>();
+        if (resolution.outcome() == ProxyBidResolver.Outcome.PROXY_HOLDS) {
+            // The incoming bid is recorded before the proxy's auto-bid that beats it
+            bids.add(new AcceptedBidWriter.BidRow(bidderId, amount.cents(), false, false));
+        }
+        Long winner = resolution.winnerId();
+        Money winningAmount = resolution.amount();
+        bids.add(new AcceptedBidWriter.BidRow(winner, winningAmount.cents(), resolution.autoBid(),
+                resolution.proxyBid()));
+
+        LocalDateTime endTime = softClose.endTimeAfterBid(auction.endTime, now);
+        AcceptedBidWriter.AcceptedBid record = new AcceptedBidWriter.AcceptedBid(auctionId, auction.itemId,
+                now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), bids, proxyUpdate,
+                winningAmount.cents(), auction.bidCount + 1, winner,
+                endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), null);
+        long sequence = bidJournal.append(serialize(record));
+
+        // Only applied once journaled, so a failed append leaves the auction untouched
+        if (proxyUpdate != null) {
+            auction.proxies.upsert(bidderId, resolution.effectiveMax());
+        }
+        boolean extended = endTime.isAfter(auction.endTime);
+        auction.price = winningAmount;
+        auction.bidCount++;
+        auction.endTime = endTime;
+        auction.proxies.markSynced(auction.bidCount);
+
+        return new Acceptance(sequence, winner, winningAmount, resolution.autoBid(), resolution.proxyBid(),
+                winningAmount.plus(auction.increment), endTime, extended);
+    }
+
+    /**
+     * Waits until the bid's journal record is on disk. Called off the partition
+     * thread so the next bids of the auction can be journaled in the meantime.
+     */
+    public void awaitDurable(Acceptance acceptance) {
+        bidJournal.awaitDurable(acceptance.sequence(), durableTimeoutMs);
+    }
+
+    /**
+     * Stops accepting bids on an auction about to be closed. Must run on the
+     * auction's partition thread, so every bid accepted for it before is
+     * already appended to the journal. Returns the end time of an auction a
+     * soft close extended past {@code now}, which keeps accepting bids, and
+     * null otherwise.
+     */
+    public LocalDateTime closeBidding(Long auctionId, LocalDateTime now) {
+        AuctionState auction = auctions.get(auctionId);
+        if (auction == null) {
+            // Keeps a bid from loading the still ACTIVE row before the close commits
+            auction = new AuctionState();
+            auction.status = AuctionStatus.CLOSED;
+            auctions.put(auctionId, auction);
+            return null;
+        }
+        if (auction.status != AuctionStatus.CLOSED && auction.endTime.isAfter(now)) {
+            return auction.endTime;
+        }
+        auction.status = AuctionStatus.CLOSED;
+        return null;
+    }
+
+    /**
+     * Drops an auction's state once its close committed, or once it turned out
+     * not to have ended, so the next bid reloads it from the database.
+     */
+    public void evict(Long auctionId) {
+        auctions.remove(auctionId);
+    }
+
+    /**
+     * Loads an auction from the database. Only valid while nothing journaled for
+     * it is still unpersisted, which holds on first use after the startup replay.
+     */
+    private AuctionState load(Long auctionId) {
+        return transactionTemplate.execute(status -> {
+            Auction auction = auctionRepository.findById(auctionId)
+                    .orElseThrow(() -> new RuntimeException("Auction not found"));
+            AuctionState state = new AuctionState();
+            state.itemId = auction.getItem().getId();
+            state.status = auction.getStatus();
+            state.startTime = auction.getStartTime();
+            state.endTime = auction.getEndTime();
+            state.sellerId = auction.getItem().getSeller().getId();
+            BigDecimal price = auction.getItem().getCurrentPrice() != null ? auction.getItem().getCurrentPrice()
+                    : auction.getReservePrice();
+            state.price = price != null ? Money.of(price) : Money.ZERO;
+            state.increment = Money.of(auction.getMinBidIncrement());
+            state.reserve = Money.ofNullable(auction.getReservePrice());
+            state.bidCount = auction.getBidCount();
+            state.proxies = proxyBidBooks.load(auctionId, auction.getBidCount());
+            return state;
+        });
+    }
+
+    private byte[] serialize(AcceptedBidWriter.AcceptedBid record) {
+        try {
+            return objectMapper.writeValueAsBytes(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize accepted bid", e);
+        }
+    }
+}
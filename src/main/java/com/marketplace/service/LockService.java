@@ -0,0 +1,44 @@
+package com.marketplace.service;
+
+/**
+ * Named locks that exclude threads on every node of a deployment, or within
+ * the process for single-node deployments. The backend is chosen with
+ * {@code bidding.lock.backend}: {@code REDIS} ({@link RedisLockService}) or
+ * {@code IN_MEMORY} ({@link InMemoryLockService}).
+ */
+public interface LockService {
+
+    /**
+     * Tries to acquire a lock for a specific key.
+     *
+     * @param key       The unique key to lock (e.g., "auction:123").
+     * @param timeoutMs The lease time of the lock in milliseconds; it is
+     *                  renewed while the holder keeps the lock.
+     * @return true if the lock was acquired, false otherwise.
+     */
+    boolean acquireLock(String key, long timeoutMs);
+
+    /**
+     * Attempts to acquire a lock with a retry mechanism.
+     *
+     * @param key            The unique key to lock.
+     * @param requestTimeout The maximum time to wait for the lock in milliseconds.
+     * @param lockExpiration The lease time of the lock in milliseconds,
+     *                       renewed while the holder keeps the lock.
+     * @return true if the lock was acquired, false if timed out.
+     */
+    boolean acquireLockWithRetry(String key, long requestTimeout, long lockExpiration);
+
+    /**
+     * Releases the lock for a specific key.
+     *
+     * @param key The unique key to unlock.
+     */
+    void releaseLock(String key);
+
+    /**
+     * Fencing token of the lock this node holds on {@code key}, 0 if it holds
+     * none. A later holder of the same lock always has a larger token.
+     */
+    long fencingToken(String key);
+}
@@ -0,0 +1,214 @@
+package com.marketplace.service;
+
+import com.marketplace.engine.SoftCloseRule;
+import com.marketplace.entity.Auction;
+import com.marketplace.entity.ProxyBid;
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.repository.AuctionRepository;
+import com.marketplace.repository.ProxyBidRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis-side bid acceptance for {@code bidding.mode=REDIS_SCRIPT}.
+ *
+ * Auction state (price, bid count, leader, increment, reserve, end time) lives
+ * in a Redis hash and proxies in a sorted set. One Lua script call validates a
+ * bid, applies it and queues the outcome; {@link com.marketplace.scheduler.AcceptedBidWriter}
+ * persists queued outcomes to MySQL in batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RedisBidService {
+
+    public static final String ACCEPTED_BIDS_KEY = "bids:accepted";
+    private static final String ACCEPTED_BIDS_SEQUENCE_KEY = "bids:accepted:sequence";
+    /** Must match SEQ_SPACE in accept_bid.lua. */
+    private static final long PROXY_SEQ_SPACE = 524288;
+    private static final Duration CLOSED_STATE_TTL = Duration.ofHours(1);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AuctionRepository auctionRepository;
+    private final ProxyBidRepository proxyBidRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SoftCloseRule softClose;
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> acceptBidScript = RedisScript.of(new ClassPathResource("scripts/accept_bid.lua"),
+            List.class);
+    private final RedisScript<Long> loadStateScript = RedisScript.of(
+            new ClassPathResource("scripts/load_auction_state.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> closeBiddingScript = RedisScript.of(
+            new ClassPathResource("scripts/close_bidding.lua"), List.class);
+
+    /**
+     * Outcome of an accepted bid: the auction's leader and price after the bid,
+     * which is the opponent's auto-bid when an existing proxy holds, plus the
+     * minimum next bid and end time for the local price snapshot. {@code extended}
+     * tells whether the bid moved the end time by a soft close.
+     */
+    public record Acceptance(Long winnerId, BigDecimal amount, boolean autoBid, boolean proxyBid,
+            BigDecimal minNextBid, LocalDateTime endTime, boolean extended) {
+    }
+
+    public Acceptance acceptBid(Long auctionId, Long bidderId, BigDecimal amount, BigDecimal maxProxyAmount) {
+        List<String> result = runAcceptScript(auctionId, bidderId, amount, maxProxyAmount);
+        if ("MISS".equals(result.get(0))) {
+            loadState(auctionId);
+            result = runAcceptScript(auctionId, bidderId, amount, maxProxyAmount);
+        }
+        if ("REJECTED".equals(result.get(0))) {
+            throw new RuntimeException(result.get(1));
+        }
+        return new Acceptance(
+                Long.valueOf(result.get(1)),
+                fromCents(Long.parseLong(result.get(2))),
+                Boolean.parseBoolean(result.get(3)),
+                Boolean.parseBoolean(result.get(4)),
+                fromCents(Long.parseLong(result.get(5))),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(result.get(6))), ZoneId.systemDefault()),
+                Boolean.parseBoolean(result.get(7)));
+    }
+
+    /**
+     * Stops accepting bids on auctions that are about to be closed. Called
+     * before the accepted bid queue is drained, so every bid accepted for them
+     * is in MySQL when the winner is read. Auctions a soft close extended past
+     * {@code now} keep accepting bids; their end times are returned.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, LocalDateTime> closeBidding(List<Long> auctionIds, LocalDateTime now) {
+        List<Long> results = (List<Long>) stringRedisTemplate.execute(closeBiddingScript,
+                auctionIds.stream().map(RedisBidService::stateKey).toList(),
+                Long.toString(now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()),
+                Long.toString(CLOSED_STATE_TTL.toMillis()));
+        Map<Long, LocalDateTime> extended = new HashMap<>();
+        for (int i = 0; i < auctionIds.size(); i++) {
+            long endTime = results.get(i);
+            if (endTime >= 0) {
+                extended.put(auctionIds.get(i),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(endTime), ZoneId.systemDefault()));
+            }
+        }
+        return extended;
+    }
+
+    /**
+     * Lets bids in again on an auction that {@link #closeBidding} stopped but
+     * that turned out not to have ended; its state is reloaded from MySQL.
+     */
+    public void reopenBidding(Long auctionId) {
+        stringRedisTemplate.delete(stateKey(auctionId));
+    }
+
+    /**
+     * Stops accepting bids for a closed auction and lets its state expire.
+     */
+    public void markClosed(Long auctionId) {
+        String stateKey = stateKey(auctionId);
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(stateKey))) {
+            stringRedisTemplate.opsForHash().put(stateKey, "status", AuctionStatus.CLOSED.name());
+            stringRedisTemplate.expire(stateKey, CLOSED_STATE_TTL);
+        }
+        stringRedisTemplate.expire(proxiesKey(auctionId), CLOSED_STATE_TTL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> runAcceptScript(Long auctionId, Long bidderId, BigDecimal amount,
+            BigDecimal maxProxyAmount) {
+        return (List<String>) stringRedisTemplate.execute(acceptBidScript,
+                List.of(stateKey(auctionId), proxiesKey(auctionId), ACCEPTED_BIDS_KEY, ACCEPTED_BIDS_SEQUENCE_KEY),
+                bidderId.toString(),
+                Long.toString(toCents(amount)),
+                Long.toString(maxProxyAmount != null ? toCents(maxProxyAmount) : -1),
+                Long.toString(System.currentTimeMillis()),
+                Long.toString(softClose.windowMillis()),
+                Long.toString(softClose.extensionMillis()));
+    }
+
+    private void loadState(Long auctionId) {
+        List<String> args = transactionTemplate.execute(status -> {
+            Auction auction = auctionRepository.findById(auctionId)
+                    .orElseThrow(() -> new RuntimeException("Auction not found"));
+            LocalDateTime now = LocalDateTime.now();
+            boolean active = auction.getStatus() == AuctionStatus.ACTIVE
+                    || (auction.getStatus() == AuctionStatus.SCHEDULED && now.isAfter(auction.getStartTime()));
+            BigDecimal price = auction.getItem().getCurrentPrice() != null ? auction.getItem().getCurrentPrice()
+                    : auction.getReservePrice();
+
+            List<String> fields = new ArrayList<>(List.of(
+                    "auctionId", auctionId.toString(),
+                    "itemId", auction.getItem().getId().toString(),
+                    "status", active ? AuctionStatus.ACTIVE.name() : auction.getStatus().name(),
+                    "endTime", Long.toString(auction.getEndTime().atZone(ZoneId.systemDefault()).toInstant()
+                            .toEpochMilli()),
+                    "sellerId", auction.getItem().getSeller().getId().toString(),
+                    "price", Long.toString(price != null ? toCents(price) : 0),
+                    "increment", Long.toString(toCents(auction.getMinBidIncrement())),
+                    "reserve", auction.getReservePrice() != null ? Long.toString(toCents(auction.getReservePrice())) : "",
+                    "bidCount", auction.getBidCount().toString(),
+                    "leader", auction.getWinner() != null ? auction.getWinner().getId().toString() : ""));
+
+            List<ProxyBid> proxies = proxyBidRepository.findByAuctionIdAndIsActiveTrue(auctionId).stream()
+                    .sorted(Comparator.comparing(ProxyBid::getId))
+                    .toList();
+            fields.add("proxySeq");
+            fields.add(Integer.toString(proxies.size()));
+
+            List<String> scriptArgs = new ArrayList<>();
+            scriptArgs.add(Integer.toString(fields.size()));
+            scriptArgs.addAll(fields);
+            for (int seq = 0; seq < proxies.size(); seq++) {
+                ProxyBid proxy = proxies.get(seq);
+                long score = toCents(proxy.getMaxAmount()) * PROXY_SEQ_SPACE + (PROXY_SEQ_SPACE - 1 - seq);
+                scriptArgs.add(Long.toString(score));
+                scriptArgs.add(proxy.getBidder().getId().toString());
+            }
+            return scriptArgs;
+        });
+
+        Long loaded = stringRedisTemplate.execute(loadStateScript,
+                List.of(stateKey(auctionId), proxiesKey(auctionId)), args.toArray());
+        if (Long.valueOf(1).equals(loaded)) {
+            log.info("Loaded bidding state of auction {} into Redis", auctionId);
+        }
+    }
+
+    static String stateKey(Long auctionId) {
+        return "auction:" + auctionId + ":state";
+    }
+
+    static String proxiesKey(Long auctionId) {
+        return "auction:" + auctionId + ":proxies";
+    }
+
+    static long toCents(BigDecimal amount) {
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Amount must have at most 2 decimal places");
+        }
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -1,67 +1,107 @@
 package com.marketplace.service;
 
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import com.marketplace.engine.LockContention;
+import com.marketplace.enums.LockWaitMode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+/**
+ * Locks held in Redis, so they exclude threads on every node.
+ *
+ * A lock's value is its fencing token, taken from a single Redis counter, so
+ * it grows with every acquisition of any lock. Releases are published on
+ * {@code lock_released:<key>}, which every node subscribes to for waking its
+ * waiters.
+ */
 @Service
-@RequiredArgsConstructor
-@Slf4j
-public class RedisLockService {
+@ConditionalOnProperty(name = "bidding.lock.backend", havingValue = "REDIS", matchIfMissing = true)
+public class RedisLockService extends StripedLockService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
     private static final String LOCK_PREFIX = "lock:";
+    private static final String RELEASED_CHANNEL_PREFIX = "lock_released:";
+    private static final String FENCE_KEY = "lock_fence";
 
-    /**
-     * Tries to acquire a lock for a specific key.
-     *
-     * @param key       The unique key to lock (e.g., "auction:123").
-     * @param timeoutMs The expiration time for the lock in milliseconds to prevent
-     *                  deadlocks.
-     * @return true if the lock was acquired, false otherwise.
-     */
-    public boolean acquireLock(String key, long timeoutMs) {
-        String lockKey = LOCK_PREFIX + key;
-        Boolean success = redisTemplate.opsForValue().setIfAbsent(lockKey, "LOCKED", Duration.ofMillis(timeoutMs));
-        return Boolean.TRUE.equals(success);
+    // Takes a free lock, storing the next fencing token as its owner
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            local token = redis.call('INCR', KEYS[2])
+            redis.call('SET', KEYS[1], token, 'PX', ARGV[1])
+            return token
+            """, Long.class);
+
+    // Deletes the lock only if the caller still owns it, and announces it on the key's channel
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                redis.call('PUBLISH', KEYS[2], '')
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    // Extends the lease only if the caller still owns the lock
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisSerializer<String> ARGS_SERIALIZER = RedisSerializer.string();
+    private static final RedisSerializer<Long> RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    public RedisLockService(RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer, LockContention contention) {
+        super(contention);
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
     }
 
-    /**
-     * Releases the lock for a specific key.
-     *
-     * @param key The unique key to unlock.
-     */
-    public void releaseLock(String key) {
-        String lockKey = LOCK_PREFIX + key;
-        redisTemplate.delete(lockKey);
+    @PostConstruct
+    public void subscribeToReleases() {
+        if (getWaitMode() == LockWaitMode.PUBSUB && listenerContainer != null) {
+            listenerContainer.addMessageListener((message, pattern) -> {
+                String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+                lockReleased(channel.substring(RELEASED_CHANNEL_PREFIX.length()));
+            }, new PatternTopic(RELEASED_CHANNEL_PREFIX + "*"));
+        }
     }
 
-    /**
-     * Attempts to acquire a lock with a retry mechanism.
-     *
-     * @param key            The unique key to lock.
-     * @param requestTimeout The maximum time to wait for the lock in milliseconds.
-     * @param lockExpiration The expiration time for the lock itself in
-     *                       milliseconds.
-     * @return true if the lock was acquired, false if timed out.
-     */
-    public boolean acquireLockWithRetry(String key, long requestTimeout, long lockExpiration) {
-        long startTime = System.currentTimeMillis();
+    /** Takes the Redis key if it is free; returns its fencing token, or 0. */
+    @Override
+    protected long setLock(String key, long leaseMs) {
+        Long token = redisTemplate.execute(ACQUIRE_SCRIPT, ARGS_SERIALIZER, RESULT_SERIALIZER,
+                List.of(LOCK_PREFIX + key, FENCE_KEY), String.valueOf(leaseMs));
+        return token != null ? token : 0;
+    }
 
-        while (System.currentTimeMillis() - startTime < requestTimeout) {
-            if (acquireLock(key, lockExpiration)) {
-                return true;
-            }
-            try {
-                Thread.sleep(50); // Wait 50ms before retrying
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return false;
-            }
-        }
-        return false;
+    /** Deletes the Redis key if {@code token} still owns it and announces the release. */
+    @Override
+    protected boolean deleteLock(String key, long token) {
+        Long deleted = redisTemplate.execute(RELEASE_SCRIPT, ARGS_SERIALIZER, RESULT_SERIALIZER,
+                List.of(LOCK_PREFIX + key, RELEASED_CHANNEL_PREFIX + key), String.valueOf(token));
+        return deleted != null && deleted == 1;
+    }
+
+    /** Extends the Redis key's lease if {@code token} still owns it. */
+    @Override
+    protected boolean renewLock(String key, long token, long leaseMs) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, ARGS_SERIALIZER, RESULT_SERIALIZER,
+                List.of(LOCK_PREFIX + key), String.valueOf(token), String.valueOf(leaseMs));
+        return renewed != null && renewed == 1;
     }
 }
@@ -0,0 +1,303 @@
+package com.marketplace.service;
+
+import com.marketplace.engine.LockContention;
+import com.marketplace.engine.LockWaiters;
+import com.marketplace.enums.LockWaitMode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The parts of a {@link LockService} that do not depend on where the locks are
+ * stored. Subclasses implement taking, deleting and renewing a lock in the
+ * store ({@link #setLock}, {@link #deleteLock}, {@link #renewLock}) and call
+ * {@link #lockReleased} when any node releases a lock.
+ *
+ * In front of the store sits a tier of fair, node-local {@link ReentrantLock}s,
+ * one per key for as long as a thread holds or waits for it: threads of one
+ * node queue up locally, and only the local owner talks to the store. A hot
+ * auction then costs one contender per node, a hand-off between threads of
+ * the same node does not wait for the store, and keys never wait behind each
+ * other. A lock must therefore be released by the thread that acquired it.
+ *
+ * Each acquisition gets a fencing token from the store that also identifies
+ * the owner, so a holder whose lease ran out cannot delete the next holder's
+ * lock. A watchdog renews the leases of holders that are still working, so
+ * lease times can be short.
+ *
+ * Waits, hold times and failures are reported to {@link LockContention}.
+ */
+@Slf4j
+public abstract class StripedLockService implements LockService {
+
+    private final LockContention contention;
+    private final LockWaiters waiters = new LockWaiters();
+    // Node-local lock per key, dropped when its last holder or waiter leaves
+    private final Map<String, LocalLock> localLocks = new ConcurrentHashMap<>();
+
+    // Locks this node holds, by key
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lock-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class Lease {
+        private final long token;
+        private final Thread owner;
+        private final long acquiredAt = System.nanoTime();
+        private volatile ScheduledFuture<?> renewal;
+
+        private Lease(long token, Thread owner) {
+            this.token = token;
+            this.owner = owner;
+        }
+    }
+
+    private static final class LocalLock {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int users; // Holders and waiters, only changed inside localLocks.compute
+    }
+
+    // Tries against the store while waiting for one lock
+    private static final class Attempts {
+        private int count;
+    }
+
+    @Value("${bidding.lock.wait-mode:PUBSUB}")
+    private LockWaitMode waitMode = LockWaitMode.PUBSUB;
+
+    // Re-check interval for waiters whose lock expired or whose wake-up message was lost
+    @Value("${bidding.lock.recheck-ms:200}")
+    private long recheckMs = 200;
+
+    @Value("${bidding.lock.local-queue:true}")
+    private boolean localQueue = true;
+
+    protected StripedLockService(LockContention contention) {
+        this.contention = contention;
+    }
+
+    protected LockWaitMode getWaitMode() {
+        return waitMode;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    @Override
+    public boolean acquireLock(String key, long timeoutMs) {
+        LocalLock local = joinLocal(key);
+        if (local != null && !local.lock.tryLock()) {
+            leaveLocal(key, local);
+            contention.busy(key);
+            return false;
+        }
+        boolean acquired = false;
+        try {
+            acquired = takeLease(key, timeoutMs, new Attempts());
+            return acquired;
+        } finally {
+            if (!acquired) {
+                contention.busy(key);
+                unlockLocal(key, local);
+            }
+        }
+    }
+
+    @Override
+    public void releaseLock(String key) {
+        try {
+            Lease lease = leases.get(key);
+            // Only the holder's own thread releases, not one whose lease ran out meanwhile
+            if (lease != null && lease.owner == Thread.currentThread() && leases.remove(key, lease)) {
+                lease.renewal.cancel(false);
+                contention.released(key, System.nanoTime() - lease.acquiredAt);
+                if (!deleteLock(key, lease.token)) {
+                    log.warn("Lock {} expired before it was released", key);
+                }
+            }
+        } finally {
+            LocalLock local = localLocks.get(key);
+            if (local != null && local.lock.isHeldByCurrentThread()) {
+                unlockLocal(key, local); // The next local waiter takes over
+            }
+        }
+    }
+
+    @Override
+    public long fencingToken(String key) {
+        Lease lease = leases.get(key);
+        return lease != null ? lease.token : 0;
+    }
+
+    /** Takes the lock in the store if it is free; returns its fencing token, or 0. */
+    protected abstract long setLock(String key, long leaseMs);
+
+    /**
+     * Deletes the lock from the store if {@code token} still owns it, and lets
+     * every node know it was released.
+     */
+    protected abstract boolean deleteLock(String key, long token);
+
+    /** Extends the lock's lease in the store if {@code token} still owns it. */
+    protected abstract boolean renewLock(String key, long token, long leaseMs);
+
+    private boolean takeLease(String key, long leaseMs, Attempts attempts) {
+        attempts.count++;
+        long token = setLock(key, leaseMs);
+        if (token == 0) {
+            return false;
+        }
+        Lease lease = new Lease(token, Thread.currentThread());
+        leases.put(key, lease);
+        scheduleRenewal(key, lease, leaseMs);
+        return true;
+    }
+
+    // Renews a third of the way into each lease, for as long as the holder keeps the lock
+    private void scheduleRenewal(String key, Lease lease, long leaseMs) {
+        lease.renewal = watchdog.schedule(() -> {
+            if (leases.get(key) != lease) {
+                return; // Released
+            }
+            if (!lease.owner.isAlive()) {
+                leases.remove(key, lease); // Holder died without releasing, let the lease run out
+                return;
+            }
+            try {
+                if (!renewLock(key, lease.token, leaseMs)) {
+                    log.warn("Lock {} expired while its holder was still working", key);
+                    leases.remove(key, lease);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not renew lock {}: {}", key, e.getMessage());
+            }
+            scheduleRenewal(key, lease, leaseMs);
+        }, Math.max(1, leaseMs / 3), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wakes the longest-waiting thread of this node for {@code key}; called for
+     * every release of the lock, by any node.
+     */
+    protected void lockReleased(String key) {
+        waiters.wakeNext(key);
+    }
+
+    @Override
+    public boolean acquireLockWithRetry(String key, long requestTimeout, long lockExpiration) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(requestTimeout);
+        LocalLock local = joinLocal(key);
+        Attempts attempts = new Attempts();
+        try {
+            if (local != null && !local.lock.tryLock(requestTimeout, TimeUnit.MILLISECONDS)) {
+                leaveLocal(key, local);
+                contention.timedOut(key, System.nanoTime() - startedAt, attempts.count);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            leaveLocal(key, local);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        boolean acquired = false;
+        try {
+            acquired = waitMode == LockWaitMode.POLL
+                    ? pollForLock(key, deadline, lockExpiration, attempts)
+                    : waitForRelease(key, deadline, lockExpiration, attempts);
+            return acquired;
+        } finally {
+            long waited = System.nanoTime() - startedAt;
+            if (acquired) {
+                contention.acquired(key, waited, attempts.count);
+            } else {
+                contention.timedOut(key, waited, attempts.count);
+                unlockLocal(key, local);
+            }
+        }
+    }
+
+    private boolean waitForRelease(String key, long deadline, long lockExpiration, Attempts attempts) {
+        // Threads of this node already waiting go first
+        if (waiters.isEmpty(key) && takeLease(key, lockExpiration, attempts)) {
+            return true;
+        }
+
+        LockWaiters.Waiter waiter = waiters.join(key);
+        boolean acquired = false;
+        try {
+            while (true) {
+                // Also covers a release between the first attempt and joining the line
+                if (waiters.isFirst(key, waiter) && takeLease(key, lockExpiration, attempts)) {
+                    acquired = true;
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                waiter.await(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(recheckMs)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.leave(key, waiter, acquired);
+        }
+    }
+
+    private boolean pollForLock(String key, long deadline, long lockExpiration, Attempts attempts) {
+        while (deadline - System.nanoTime() > 0) {
+            if (takeLease(key, lockExpiration, attempts)) {
+                return true;
+            }
+            try {
+                Thread.sleep(50); // Wait 50ms before retrying
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** Counts the calling thread as a user of the key's local lock, creating it if needed. */
+    private LocalLock joinLocal(String key) {
+        if (!localQueue) {
+            return null;
+        }
+        return localLocks.compute(key, (k, local) -> {
+            LocalLock joined = local != null ? local : new LocalLock();
+            joined.users++;
+            return joined;
+        });
+    }
+
+    private void leaveLocal(String key, LocalLock local) {
+        if (local != null) {
+            localLocks.computeIfPresent(key, (k, current) -> current == local && --current.users == 0 ? null : current);
+        }
+    }
+
+    private void unlockLocal(String key, LocalLock local) {
+        if (local != null) {
+            local.lock.unlock();
+            leaveLocal(key, local);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+-- Validates and applies one bid against the auction state hash, mirroring
+-- BidService.processBid, and queues the outcome for the background writer.
+--
+-- KEYS[1] auction state hash   KEYS[2] proxy zset   KEYS[3] accepted bid queue
+-- KEYS[4] accepted bid sequence, which lets the writer skip bids it already inserted
+-- ARGV[1] bidder id   ARGV[2] amount (cents)   ARGV[3] max proxy (cents, -1 if none)   ARGV[4] now (epoch ms)
+-- ARGV[5] soft-close window (ms, 0 if off)   ARGV[6] soft-close extension (ms)
+--
+-- Proxy scores encode max amount and arrival order so that equal max amounts
+-- rank the earliest proxy first: score = maxCents * SEQ_SPACE + (SEQ_SPACE - 1 - seq).
+
+local SEQ_SPACE = 524288
+
+local function money(cents)
+    return string.format('%d.%02d', math.floor(cents / 100), cents % 100)
+end
+
+local function maxOf(score)
+    return math.floor(tonumber(score) / SEQ_SPACE)
+end
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return { 'MISS' }
+end
+
+local state = redis.call('HMGET', KEYS[1], 'status', 'endTime', 'sellerId', 'price', 'increment',
+    'reserve', 'bidCount', 'auctionId', 'itemId')
+local bidder = ARGV[1]
+local amount = tonumber(ARGV[2])
+local maxProxy = tonumber(ARGV[3])
+local now = tonumber(ARGV[4])
+
+if state[1] ~= 'ACTIVE' then
+    return { 'REJECTED', 'Auction is not active' }
+end
+if now > tonumber(state[2]) then
+    return { 'REJECTED', 'Auction has ended' }
+end
+if state[3] == bidder then
+    return { 'REJECTED', 'You cannot bid on your own item' }
+end
+
+local price = tonumber(state[4])
+local increment = tonumber(state[5])
+local bidCount = tonumber(state[7])
+local minBid = price + increment
+if bidCount == 0 and state[6] ~= '' then
+    minBid = tonumber(state[6])
+end
+if amount < minBid then
+    return { 'REJECTED', 'Bid must be at least ' .. money(minBid) }
+end
+
+local effectiveMax = amount
+if maxProxy > amount then
+    effectiveMax = maxProxy
+end
+
+-- Highest proxy of another bidder (the bidder can occupy at most one of the top two)
+local opponent, opponentMax
+local top = redis.call('ZREVRANGE', KEYS[2], 0, 1, 'WITHSCORES')
+for i = 1, #top, 2 do
+    if top[i] ~= bidder then
+        opponent = top[i]
+        opponentMax = maxOf(top[i + 1])
+        break
+    end
+end
+
+-- Save/raise the bidder's own proxy, keeping its original arrival order
+local proxyUpdate
+local ownScore = redis.call('ZSCORE', KEYS[2], bidder)
+if not ownScore or effectiveMax > maxOf(ownScore) then
+    local seq
+    if ownScore then
+        seq = SEQ_SPACE - 1 - (tonumber(ownScore) % SEQ_SPACE)
+    else
+        seq = redis.call('HINCRBY', KEYS[1], 'proxySeq', 1) - 1
+    end
+    redis.call('ZADD', KEYS[2], effectiveMax * SEQ_SPACE + (SEQ_SPACE - 1 - seq), bidder)
+    proxyUpdate = { bidderId = tonumber(bidder), maxAmount = effectiveMax }
+end
+
+local bids = {}
+local winner, winningAmount, isAuto, isProxy
+if not opponent then
+    winner, winningAmount, isAuto, isProxy = bidder, amount, false, false
+    bids[1] = { bidderId = tonumber(bidder), amount = amount, autoBid = false, proxyBid = false }
+elseif effectiveMax > opponentMax then
+    -- Case A: incoming max beats the opponent, win at opponent max + increment
+    local priceToWin = math.min(opponentMax + increment, effectiveMax)
+    winner, winningAmount, isAuto, isProxy = bidder, priceToWin, true, maxProxy >= 0
+    bids[1] = { bidderId = tonumber(bidder), amount = priceToWin, autoBid = true, proxyBid = isProxy }
+else
+    -- Case B: opponent proxy holds, it auto-bids just above the incoming amount
+    local priceToBeat = math.min(amount + increment, opponentMax)
+    winner, winningAmount, isAuto, isProxy = opponent, priceToBeat, true, true
+    bids[1] = { bidderId = tonumber(bidder), amount = amount, autoBid = false, proxyBid = false }
+    bids[2] = { bidderId = tonumber(opponent), amount = priceToBeat, autoBid = true, proxyBid = true }
+end
+
+-- Soft close: a bid in the last window seconds leaves the others the extension to answer
+local endTime = tonumber(state[2])
+local extended = false
+local window = tonumber(ARGV[5])
+if window > 0 and endTime - now <= window and now + tonumber(ARGV[6]) > endTime then
+    endTime = now + tonumber(ARGV[6])
+    extended = true
+end
+
+bidCount = bidCount + 1
+redis.call('HSET', KEYS[1], 'price', winningAmount, 'bidCount', bidCount, 'leader', winner, 'endTime', endTime)
+
+redis.call('RPUSH', KEYS[3], cjson.encode({
+    sequence = redis.call('INCR', KEYS[4]),
+    auctionId = tonumber(state[8]),
+    itemId = tonumber(state[9]),
+    acceptedAt = now,
+    bids = bids,
+    proxy = proxyUpdate,
+    price = winningAmount,
+    bidCount = bidCount,
+    leaderId = tonumber(winner),
+    endTime = endTime
+}))
+
+return { 'ACCEPTED', winner, tostring(winningAmount), tostring(isAuto), tostring(isProxy),
+    tostring(winningAmount + increment), string.format('%d', endTime), tostring(extended) }
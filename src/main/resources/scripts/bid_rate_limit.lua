@@ -0,0 +1,34 @@
+-- Token buckets for bid requests, kept as GCRA "theoretical arrival times":
+-- a bucket's value is the time (microseconds, Redis clock) at which it would be
+-- full again. A request is allowed if adding one interval per token does not
+-- push that time more than burst intervals past now. Every bucket must allow
+-- the request; none is charged otherwise.
+--
+-- KEYS[1] bidder bucket   KEYS[2..n] bidder+auction buckets (optional)
+-- ARGV[1] bidder interval us   ARGV[2] bidder burst
+-- ARGV[3] bidder+auction interval us   ARGV[4] bidder+auction burst
+-- ARGV[4 + i] tokens taken from KEYS[i] (default 1)
+-- Returns {0, 0} when allowed, else {number of the rejecting key, retry after us}
+
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+local next = {}
+for i = 1, #KEYS do
+    local scope = math.min(i, 2)
+    local interval = tonumber(ARGV[scope * 2 - 1])
+    local burst = tonumber(ARGV[scope * 2])
+    local tokens = tonumber(ARGV[4 + i] or 1)
+    local tat = tonumber(redis.call('GET', KEYS[i]) or now)
+    next[i] = math.max(tat, now) + interval * tokens
+    local wait = next[i] - now - interval * burst
+    if wait > 0 then
+        return {i, wait}
+    end
+end
+
+for i = 1, #KEYS do
+    redis.call('SET', KEYS[i], string.format('%d', next[i]), 'PX', math.ceil((next[i] - now) / 1000) + 1)
+end
+return {0, 0}
@@ -0,0 +1,27 @@
+-- Stops bid acceptance for auctions about to be closed, so that no bid can be
+-- accepted after the closer drained the accepted bid queue. Runs atomically
+-- with accept_bid.lua, so every bid it accepted is already queued.
+--
+-- KEYS  auction state hashes
+-- ARGV[1] now (epoch ms)   ARGV[2] TTL (ms) of the marker left for a state not in Redis
+--
+-- Returns, per key, -1 if bidding was stopped or the end time (epoch ms) of an
+-- auction a soft close extended past now, which is left open.
+
+local now = tonumber(ARGV[1])
+local result = {}
+for i, key in ipairs(KEYS) do
+    local state = redis.call('HMGET', key, 'status', 'endTime')
+    if not state[1] then
+        -- Keeps a later bid from loading the still ACTIVE row before the close commits
+        redis.call('HSET', key, 'status', 'CLOSED')
+        redis.call('PEXPIRE', key, ARGV[2])
+        result[i] = -1
+    elseif state[1] == 'ACTIVE' and state[2] and tonumber(state[2]) > now then
+        result[i] = tonumber(state[2])
+    else
+        redis.call('HSET', key, 'status', 'CLOSED')
+        result[i] = -1
+    end
+end
+return result
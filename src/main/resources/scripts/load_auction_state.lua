@@ -0,0 +1,18 @@
+-- Seeds the auction state hash and proxy zset from the database unless another
+-- caller already did. Existing state is never overwritten: it may hold bids the
+-- background writer has not persisted yet.
+--
+-- KEYS[1] auction state hash   KEYS[2] proxy zset
+-- ARGV[1] number of hash field/value arguments that follow, then the
+-- field/value pairs, then proxy score/member pairs
+
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+
+local fieldArgs = tonumber(ARGV[1])
+redis.call('HSET', KEYS[1], unpack(ARGV, 2, fieldArgs + 1))
+if #ARGV > fieldArgs + 1 then
+    redis.call('ZADD', KEYS[2], unpack(ARGV, fieldArgs + 2))
+end
+return 1
@@ -0,0 +1,83 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionBidQueuesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuctionBidQueues queues = new AuctionBidQueues(4, 3, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        queues.shutdown();
+    }
+
+    @Test
+    void bidsOfOneAuction_RunOneAtATimeInOrder() {
+        List<Integer> order = new ArrayList<>(); // Not thread-safe on purpose
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        AuctionBidQueues wide = new AuctionBidQueues(4, 1000, meterRegistry);
+        try {
+            for (int i = 0; i < 500; i++) {
+                int bid = i;
+                results.add(wide.submit(1L, () -> {
+                    order.add(bid);
+                    return bid;
+                }));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            wide.shutdown();
+        }
+
+        assertEquals(500, order.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void fullQueue_RejectsWithSystemBusy_OtherAuctionsUnaffected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<String>> queued = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queued.add(queues.submit(1L, () -> {
+                await(release);
+                return "accepted";
+            }));
+        }
+
+        CompletableFuture<String> rejected = queues.submit(1L, () -> "accepted");
+        CompletableFuture<String> otherAuction = queues.submit(2L, () -> "accepted");
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertEquals("System busy, please try again", error.getCause().getMessage());
+        assertEquals("accepted", otherAuction.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("bids.async.rejected").counter().count());
+
+        release.countDown();
+        for (CompletableFuture<String> bid : queued) {
+            assertEquals("accepted", bid.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals("accepted", queues.submit(1L, () -> "accepted").get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionCloseCatchUpTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuctionCloseCatchUp catchUp;
+
+    @AfterEach
+    void tearDown() {
+        catchUp.shutdown();
+    }
+
+    @Test
+    void add_ClosesBacklogInChunks_AndSkipsQueuedAuctions() throws InterruptedException {
+        catchUp = new AuctionCloseCatchUp(1, 3, 100_000, 2000, meterRegistry);
+        List<List<Long>> chunks = Collections.synchronizedList(new ArrayList<>());
+
+        assertEquals(7, catchUp.add(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), chunks::add));
+        awaitCaughtUp();
+
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L), List.of(7L)), chunks);
+        AuctionCloseCatchUp.Progress progress = catchUp.progress();
+        assertEquals(7, progress.total());
+        assertEquals(7, progress.processed());
+        assertEquals(0, progress.remaining());
+        assertEquals(0L, progress.etaSeconds());
+        assertFalse(catchUp.isQueued(1L));
+        assertEquals(0, meterRegistry.get("auctions.close.catch_up.remaining").gauge().value());
+    }
+
+    @Test
+    void failedChunk_IsRetried_AtAHalvedPace() throws InterruptedException {
+        catchUp = new AuctionCloseCatchUp(2, 2, 100_000, 2000, meterRegistry);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Long> closed = Collections.synchronizedList(new ArrayList<>());
+
+        catchUp.add(List.of(1L, 2L), chunk -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            closed.addAll(chunk);
+        });
+        awaitCaughtUp();
+
+        assertEquals(List.of(1L, 2L), closed);
+        assertEquals(2, catchUp.progress().processed());
+        assertTrue(catchUp.progress().allowedPerSecond() < 100_000);
+    }
+
+    private void awaitCaughtUp() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (catchUp.progress().running() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(catchUp.progress().running());
+    }
+}
@@ -0,0 +1,63 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionCloseLagTest {
+
+    private final LocalDateTime end = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuctionCloseLag closeLag;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        closeLag = new AuctionCloseLag(meterRegistry);
+    }
+
+    @Test
+    void worst_RanksClosesByLag_OverTheLastTwoWindows() {
+        closeLag.closed(1L, end, end.plusNanos(40_000_000));
+        closeLag.rollWindow();
+        closeLag.closed(2L, end, end.plusSeconds(3));
+        closeLag.closed(3L, end, end.plusNanos(5_000_000));
+        closeLag.rollWindow();
+        closeLag.closed(4L, end, end.plusSeconds(1));
+
+        List<AuctionCloseLag.LateClose> worst = closeLag.worst(2);
+
+        assertEquals(List.of(2L, 4L), worst.stream().map(AuctionCloseLag.LateClose::auctionId).toList());
+        assertEquals(3000, worst.get(0).lagMs());
+        assertEquals(4, meterRegistry.get("auctions.close.lag").timer().count());
+        assertEquals(3, meterRegistry.get("auctions.close.lag").timer().max(TimeUnit.SECONDS), 0.001);
+    }
+
+    @Test
+    void window_KeepsOnlyTheMostDelayedCloses() {
+        ReflectionTestUtils.setField(closeLag, "worstKept", 2);
+        closeLag.closed(1L, end, end.plusSeconds(2));
+        closeLag.closed(2L, end, end.plusSeconds(1));
+        closeLag.closed(3L, end, end.plusSeconds(3));
+
+        assertEquals(List.of(3L, 1L),
+                closeLag.worst(10).stream().map(AuctionCloseLag.LateClose::auctionId).toList());
+    }
+
+    @Test
+    void earlyClose_CountsAsNoLag_AndBacklogFeedsTheGauge() {
+        closeLag.closed(1L, end, end.minusSeconds(1));
+        closeLag.setBacklog(7);
+
+        assertEquals(0, closeLag.worst(1).get(0).lagMs());
+        assertEquals(7, meterRegistry.get("auctions.close.backlog").gauge().value());
+    }
+}
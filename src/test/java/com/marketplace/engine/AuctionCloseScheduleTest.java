@@ -0,0 +1,57 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionCloseScheduleTest {
+
+    private final AuctionCloseSchedule schedule = new AuctionCloseSchedule();
+
+    @Test
+    void awaitDue_ReturnsEndedAuctionsOnly() throws Exception {
+        schedule.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        schedule.schedule(2L, LocalDateTime.now().minusSeconds(2));
+        schedule.schedule(3L, LocalDateTime.now().plusHours(1));
+
+        assertEquals(List.of(2L, 1L), schedule.awaitDue(0));
+        assertEquals(List.of(), schedule.awaitDue(50));
+        assertEquals(1, schedule.size());
+    }
+
+    @Test
+    void reschedule_MovesTheAuction_AndCancelRemovesIt() throws Exception {
+        schedule.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        schedule.schedule(1L, LocalDateTime.now().plusHours(1)); // Extended
+        schedule.schedule(2L, LocalDateTime.now().minusSeconds(1));
+        schedule.cancel(2L);
+
+        assertEquals(List.of(), schedule.awaitDue(0));
+        assertEquals(1, schedule.size());
+    }
+
+    @Test
+    void sleepingCloser_IsWokenByAnEarlierEndTime() throws Exception {
+        schedule.schedule(1L, LocalDateTime.now().plusHours(1));
+        CompletableFuture<List<Long>> closer = CompletableFuture.supplyAsync(() -> {
+            try {
+                return schedule.awaitDue(5000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+
+        long scheduledAt = System.nanoTime();
+        schedule.schedule(2L, LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(50)));
+
+        assertEquals(List.of(2L), closer.get(1, TimeUnit.SECONDS));
+        long lagMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledAt);
+        assertTrue(lagMs >= 40 && lagMs < 500, "closed after " + lagMs + " ms");
+    }
+}
@@ -0,0 +1,37 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionPriceSnapshotsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void pastEndTime_IsRejected_WhenSoftCloseIsOff() {
+        AuctionPriceSnapshots snapshots = new AuctionPriceSnapshots(meterRegistry, new SoftCloseRule(0, 60));
+        snapshots.record(1L, 10L, new BigDecimal("110.00"), LocalDateTime.now().minusSeconds(1));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> snapshots.rejectIfStale(1L, new BigDecimal("200.00")));
+
+        assertEquals("Auction has ended", e.getMessage());
+    }
+
+    @Test
+    void pastEndTime_GoesToFullCheck_WhenSoftCloseMayHaveExtendedIt() {
+        AuctionPriceSnapshots snapshots = new AuctionPriceSnapshots(meterRegistry, new SoftCloseRule(30, 60));
+        snapshots.record(1L, 10L, new BigDecimal("110.00"), LocalDateTime.now().minusSeconds(1));
+
+        assertEquals(10L, snapshots.rejectIfStale(1L, new BigDecimal("200.00")).auctionId());
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> snapshots.rejectIfStale(1L, new BigDecimal("100.00")));
+        assertEquals("Bid must be at least 110.00", e.getMessage());
+        assertEquals(0, meterRegistry.get("bids.fastpath.rejected").tag("reason", "ended").counter().count());
+    }
+}
@@ -0,0 +1,44 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionProxyBookTest {
+
+    @Test
+    void standingExcluding_SkipsBidderAndReturnsTopTwo() {
+        AuctionProxyBook book = new AuctionProxyBook(0);
+        book.upsert(1L, Money.ofCents(20000));
+        book.upsert(2L, Money.ofCents(15000));
+        book.upsert(3L, Money.ofCents(12000));
+
+        AuctionProxyBook.Standing standing = book.standingExcluding(1L);
+
+        assertEquals(2L, standing.highest().bidderId());
+        assertEquals(3L, standing.runnerUp().bidderId());
+        assertEquals(1L, book.highestExcluding(4L).bidderId());
+    }
+
+    @Test
+    void equalMaxAmounts_EarliestProxyWins() {
+        AuctionProxyBook book = new AuctionProxyBook(0);
+        book.upsert(1L, Money.ofCents(10000));
+        book.upsert(2L, Money.ofCents(15000));
+        // Raising bidder 1 to the same max keeps its original (earlier) position
+        book.upsert(1L, Money.ofCents(15000));
+
+        assertEquals(1L, book.highestExcluding(3L).bidderId());
+        assertEquals(2, book.size());
+    }
+
+    @Test
+    void remove_DropsBidderFromRanking() {
+        AuctionProxyBook book = new AuctionProxyBook(0);
+        book.upsert(1L, Money.ofCents(10000));
+        book.remove(1L);
+
+        assertNull(book.highestExcluding(2L));
+        assertNull(book.get(1L));
+    }
+}
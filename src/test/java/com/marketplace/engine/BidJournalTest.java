@@ -0,0 +1,66 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendedRecords_AreReadBackInOrderAcrossSegments() {
+        BidJournal journal = new BidJournal(directory, 256);
+        journal.open();
+        long last = 0;
+        for (int i = 1; i <= 20; i++) {
+            last = journal.append(("bid-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        journal.awaitDurable(last, 5000);
+
+        List<BidJournal.Record> first = journal.read(0, 15);
+        List<BidJournal.Record> rest = journal.read(15, 15);
+
+        assertEquals(15, first.size());
+        assertEquals(5, rest.size());
+        assertEquals(1, first.get(0).sequence());
+        assertEquals("bid-16", new String(rest.get(0).payload(), StandardCharsets.UTF_8));
+        assertEquals(20, rest.get(4).sequence());
+        journal.close();
+    }
+
+    @Test
+    void reopen_ResumesAfterCheckpointAndDeletesPersistedSegments() throws Exception {
+        BidJournal journal = new BidJournal(directory, 256);
+        journal.open();
+        long last = 0;
+        for (int i = 1; i <= 20; i++) {
+            last = journal.append(("bid-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        journal.awaitDurable(last, 5000);
+        journal.checkpoint(journal.read(0, 12).get(11).sequence());
+        journal.close();
+
+        BidJournal reopened = new BidJournal(directory, 256);
+        reopened.open();
+        List<BidJournal.Record> replay = reopened.read(reopened.lastCheckpoint(), 100);
+        long next = reopened.append("bid-21".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(12, reopened.lastCheckpoint());
+        assertEquals(13, replay.get(0).sequence());
+        assertEquals(8, replay.size());
+        assertEquals(21, next);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(f -> f.getFileName().toString().endsWith(".log")).count());
+        }
+        reopened.close();
+    }
+}
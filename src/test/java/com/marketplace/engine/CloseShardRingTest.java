@@ -0,0 +1,51 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CloseShardRingTest {
+
+    private static final int PARTITIONS = 256;
+
+    @Test
+    void everyPartition_HasExactlyOneOwner() {
+        List<String> nodes = List.of("node-a", "node-b", "node-c");
+        CloseShardRing ring = new CloseShardRing(nodes, 64);
+
+        Set<Integer> all = new HashSet<>();
+        for (String node : nodes) {
+            Set<Integer> owned = ring.ownedBy(node, PARTITIONS);
+            assertTrue(owned.size() > PARTITIONS / 6, node + " owns only " + owned.size());
+            for (int partition : owned) {
+                assertTrue(all.add(partition), "Partition " + partition + " has two owners");
+            }
+        }
+        assertEquals(PARTITIONS, all.size());
+    }
+
+    @Test
+    void joiningNode_TakesPartitionsOnlyForItself() {
+        CloseShardRing before = new CloseShardRing(List.of("node-a", "node-b", "node-c"), 64);
+        CloseShardRing after = new CloseShardRing(List.of("node-a", "node-b", "node-c", "node-d"), 64);
+
+        int moved = 0;
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            if (!before.owner(partition).equals(after.owner(partition))) {
+                assertEquals("node-d", after.owner(partition));
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < PARTITIONS / 2, "Moved " + moved + " partitions");
+    }
+
+    @Test
+    void emptyRing_HasNoOwner() {
+        assertNull(new CloseShardRing(List.of(), 64).owner(0));
+        assertEquals(5, CloseShardRing.partitionOf(261, PARTITIONS));
+    }
+}
@@ -0,0 +1,103 @@
+package com.marketplace.engine;
+
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.repository.AuctionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EndingSoonFeedTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private AuctionRepository auctionRepository;
+    private EndingSoonFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        auctionRepository = mock(AuctionRepository.class);
+        feed = new EndingSoonFeed(auctionRepository);
+    }
+
+    @Test
+    void page_ListsSoonestFirst_AndPagesByCursor() {
+        feed.put(listing(1L, "coins", now.plusMinutes(30)));
+        feed.put(listing(2L, "stamps", now.plusMinutes(10)));
+        feed.put(listing(3L, "coins", now.plusMinutes(20)));
+        feed.put(listing(4L, "coins", now.plusMinutes(20)));
+
+        EndingSoonFeed.Page first = feed.page(null, null, 2);
+        EndingSoonFeed.Page second = feed.page(null, first.nextCursor(), 2);
+
+        assertEquals(List.of(2L, 3L), ids(first));
+        assertEquals(List.of(4L, 1L), ids(second));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void page_FiltersByCategory_AndSkipsEndedAuctions() {
+        feed.put(listing(1L, "coins", now.minusSeconds(1)));
+        feed.put(listing(2L, "coins", now.plusMinutes(10)));
+        feed.put(listing(3L, "stamps", now.plusMinutes(5)));
+
+        assertEquals(List.of(2L), ids(feed.page("coins", null, 10)));
+        assertEquals(List.of(), ids(feed.page("maps", null, 10)));
+    }
+
+    @Test
+    void extendAndRemove_MoveAndDropListings() {
+        feed.put(listing(1L, "coins", now.plusMinutes(5)));
+        feed.put(listing(2L, "coins", now.plusMinutes(10)));
+
+        feed.extend(1L, now.plusMinutes(15));
+        assertEquals(List.of(2L, 1L), ids(feed.page("coins", null, 10)));
+
+        feed.remove(2L);
+        feed.extend(2L, now.plusMinutes(20));
+        assertEquals(List.of(1L), ids(feed.page(null, null, 10)));
+        assertEquals(1, feed.size());
+    }
+
+    @Test
+    void refresh_PicksUpRemoteChanges_AndDropsClosedListings() {
+        when(auctionRepository.findActiveListings()).thenReturn(List.<Object[]>of(
+                row(1L, "coins", now.plusMinutes(5), AuctionStatus.ACTIVE),
+                row(2L, "coins", now.plusMinutes(10), AuctionStatus.ACTIVE),
+                row(3L, "coins", now.plusDays(3), AuctionStatus.ACTIVE)));
+        feed.load();
+        when(auctionRepository.findListingsEndingBeforeOrUpdatedSince(any(), any())).thenReturn(List.<Object[]>of(
+                row(1L, "coins", now.plusMinutes(6), AuctionStatus.ACTIVE),
+                row(3L, "coins", now.plusDays(3), AuctionStatus.CANCELLED),
+                row(4L, "stamps", now.plusDays(1), AuctionStatus.ACTIVE)));
+
+        feed.refresh();
+
+        // 2 closed elsewhere: gone from the auctions ending within the horizon
+        assertEquals(List.of(1L, 4L), ids(feed.page(null, null, 10)));
+        assertEquals(now.plusMinutes(6), feed.page(null, null, 1).listings().get(0).endTime());
+    }
+
+    @Test
+    void page_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> feed.page(null, "tomorrow", 10));
+    }
+
+    private static EndingSoonFeed.Listing listing(Long auctionId, String category, LocalDateTime endTime) {
+        return new EndingSoonFeed.Listing(auctionId, auctionId + 100, "Item " + auctionId, category, endTime);
+    }
+
+    private static Object[] row(Long auctionId, String category, LocalDateTime endTime, AuctionStatus status) {
+        return new Object[] { auctionId, auctionId + 100, "Item " + auctionId, category, endTime, status };
+    }
+
+    private static List<Long> ids(EndingSoonFeed.Page page) {
+        return page.listings().stream().map(EndingSoonFeed.Listing::auctionId).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.marketplace.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockContentionTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LockContention contention;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        contention = new LockContention(meterRegistry);
+    }
+
+    @Test
+    void hottest_RanksKeysByTotalWait_OverTheLastTwoWindows() {
+        contention.acquired("auction:1", ms(30), 1);
+        contention.acquired("auction:2", ms(20), 2);
+        contention.rollWindow();
+        contention.acquired("auction:2", ms(20), 1);
+        contention.timedOut("auction:3", ms(5), 3);
+        contention.busy("auction_close:4");
+
+        List<LockContention.HotKey> hottest = contention.hottest(3);
+
+        assertEquals(List.of("auction:2", "auction:1", "auction:3"),
+                hottest.stream().map(LockContention.HotKey::key).toList());
+        assertEquals(2, hottest.get(0).acquisitions());
+        assertEquals(40, hottest.get(0).totalWaitMs(), 0.001);
+        assertEquals(1, hottest.get(2).failures());
+
+        contention.rollWindow();
+        contention.rollWindow();
+        assertTrue(contention.hottest(3).isEmpty());
+    }
+
+    @Test
+    void meters_AreTaggedByKeyPrefix() {
+        contention.acquired("auction:1", ms(10), 1);
+        contention.acquired("auction:2", ms(10), 3);
+        contention.timedOut("auction:2", ms(2000), 4);
+        contention.busy("accepted_bid_writer");
+        contention.released("auction:1", ms(7));
+
+        assertEquals(2, meterRegistry.get("locks.wait").tags("prefix", "auction", "outcome", "acquired")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("locks.failed").tags("prefix", "auction", "reason", "timeout")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("locks.failed").tags("prefix", "accepted_bid_writer", "reason", "busy")
+                .counter().count());
+        assertEquals(8, meterRegistry.get("locks.attempts").tag("prefix", "auction").summary().totalAmount());
+        assertEquals(7, meterRegistry.get("locks.held").tag("prefix", "auction").timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void keysBeyondTheLimit_AreNotTrackedUntilTheWindowRolls() {
+        ReflectionTestUtils.setField(contention, "maxKeys", 1);
+        contention.acquired("auction:1", ms(1), 1);
+        contention.acquired("auction:2", ms(50), 1);
+
+        assertEquals(List.of("auction:1"),
+                contention.hottest(10).stream().map(LockContention.HotKey::key).toList());
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,44 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockWaitersTest {
+
+    private final LockWaiters waiters = new LockWaiters();
+
+    @Test
+    void release_WakesOnlyTheLongestWaiting() throws Exception {
+        LockWaiters.Waiter first = waiters.join("auction:1");
+        LockWaiters.Waiter second = waiters.join("auction:1");
+
+        waiters.wakeNext("auction:1");
+
+        assertTrue(first.await(0));
+        assertFalse(second.await(0));
+    }
+
+    @Test
+    void wakeUpBeforeParking_IsNotLost() throws Exception {
+        LockWaiters.Waiter waiter = waiters.join("auction:1");
+        waiters.wakeNext("auction:1"); // Released after the waiter's last attempt, before it parks
+
+        assertTrue(waiter.await(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void waiterGivingUp_PassesItsWakeUpOn() throws Exception {
+        LockWaiters.Waiter first = waiters.join("auction:1");
+        LockWaiters.Waiter second = waiters.join("auction:1");
+        waiters.wakeNext("auction:1");
+
+        waiters.leave("auction:1", first, false);
+
+        assertTrue(second.await(0));
+        waiters.leave("auction:1", second, true);
+        waiters.wakeNext("auction:1"); // Nobody left to wake
+    }
+}
@@ -0,0 +1,27 @@
+package com.marketplace.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ConvertsExactlyAndRejectsFractionsOfACent() {
+        assertEquals(12050, Money.of(new BigDecimal("120.5")).cents());
+        assertEquals(new BigDecimal("120.50"), Money.ofCents(12050).toBigDecimal());
+        assertEquals("130.00", Money.of(new BigDecimal("130")).toString());
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("120.005")));
+    }
+
+    @Test
+    void json_RoundTripsAsPlainAmount() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("99.95", objectMapper.writeValueAsString(Money.ofCents(9995)));
+        assertEquals(Money.ofCents(9995), objectMapper.readValue("99.95", Money.class));
+    }
+}
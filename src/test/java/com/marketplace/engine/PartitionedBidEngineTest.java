@@ -0,0 +1,74 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedBidEngineTest {
+
+    private final PartitionedBidEngine engine = new PartitionedBidEngine(4);
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void tasksOfOneAuction_RunOnOneThreadInSubmissionOrder() {
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int bid = i;
+            results.add(engine.submit(7L, () -> {
+                applied.add(bid);
+                threads.add(Thread.currentThread().getName());
+                return bid;
+            }));
+        }
+        results.forEach(CompletableFuture::join);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, applied.get(i));
+        }
+        assertEquals(1, threads.stream().distinct().count());
+        assertEquals("bid-partition-" + engine.partitionOf(7L), threads.get(0));
+    }
+
+    @Test
+    void blockedAuction_DoesNotHoldUpOtherPartitions() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long blocked = 0;
+        long other = 1;
+        assertNotEquals(engine.partitionOf(blocked), engine.partitionOf(other));
+
+        CompletableFuture<Boolean> waiting = engine.submit(blocked, () -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals("done", engine.submit(other, () -> "done").get(1, TimeUnit.SECONDS));
+        release.countDown();
+        assertTrue(waiting.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_RethrowsTheTasksOwnException() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> engine.execute(3L, () -> {
+            throw new RuntimeException("Bid must be at least 110.00");
+        }));
+
+        assertEquals("Bid must be at least 110.00", e.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProxyBidResolverTest {
+
+    private static final Money INCREMENT = money("5.00");
+
+    @Test
+    void resolve_WithoutOtherProxy_BidStandsAtItsAmount() {
+        AuctionProxyBook book = new AuctionProxyBook(0);
+
+        ProxyBidResolver.Resolution r = ProxyBidResolver.resolve(book, 1L, money("110.00"), money("200.00"), INCREMENT);
+
+        assertEquals(ProxyBidResolver.Outcome.UNCONTESTED, r.outcome());
+        assertEquals(1L, r.winnerId());
+        assertEquals(money("110.00"), r.amount());
+        assertFalse(r.autoBid());
+        assertEquals(money("200.00"), r.effectiveMax());
+        assertTrue(r.raisesProxy());
+    }
+
+    @Test
+    void resolve_HigherMax_WinsAtOpponentMaxPlusIncrement() {
+        AuctionProxyBook book = new AuctionProxyBook(1);
+        book.upsert(2L, money("150.00"));
+
+        ProxyBidResolver.Resolution r = ProxyBidResolver.resolve(book, 1L, money("110.00"), money("200.00"), INCREMENT);
+
+        assertEquals(ProxyBidResolver.Outcome.OUTBIDS_PROXY, r.outcome());
+        assertEquals(1L, r.winnerId());
+        assertEquals(money("155.00"), r.amount());
+        assertTrue(r.autoBid());
+        assertTrue(r.proxyBid());
+    }
+
+    @Test
+    void resolve_HigherMax_IsCappedAtOwnMax() {
+        AuctionProxyBook book = new AuctionProxyBook(1);
+        book.upsert(2L, money("150.00"));
+
+        ProxyBidResolver.Resolution r = ProxyBidResolver.resolve(book, 1L, money("152.00"), null, INCREMENT);
+
+        assertEquals(ProxyBidResolver.Outcome.OUTBIDS_PROXY, r.outcome());
+        assertEquals(money("152.00"), r.amount());
+        assertFalse(r.proxyBid());
+    }
+
+    @Test
+    void resolve_OpponentProxyHolds_AutoBidsAboveIncomingAmount() {
+        AuctionProxyBook book = new AuctionProxyBook(1);
+        book.upsert(2L, money("150.00"));
+
+        ProxyBidResolver.Resolution r = ProxyBidResolver.resolve(book, 1L, money("120.00"), null, INCREMENT);
+
+        assertEquals(ProxyBidResolver.Outcome.PROXY_HOLDS, r.outcome());
+        assertEquals(2L, r.winnerId());
+        assertEquals(money("125.00"), r.amount());
+        assertTrue(r.autoBid());
+        assertTrue(r.proxyBid());
+    }
+
+    @Test
+    void resolve_EqualMax_OpponentKeepsLeadAtItsMax() {
+        AuctionProxyBook book = new AuctionProxyBook(1);
+        book.upsert(2L, money("150.00"));
+
+        ProxyBidResolver.Resolution r = ProxyBidResolver.resolve(book, 1L, money("148.00"), money("150.00"), INCREMENT);
+
+        assertEquals(ProxyBidResolver.Outcome.PROXY_HOLDS, r.outcome());
+        assertEquals(money("150.00"), r.amount());
+    }
+
+    @Test
+    void resolve_OwnProxyAlreadyCoversMax_DoesNotRaiseIt() {
+        AuctionProxyBook book = new AuctionProxyBook(1);
+        book.upsert(1L, money("300.00"));
+
+        ProxyBidResolver.Resolution r = ProxyBidResolver.resolve(book, 1L, money("110.00"), money("200.00"), INCREMENT);
+
+        assertEquals(ProxyBidResolver.Outcome.UNCONTESTED, r.outcome());
+        assertFalse(r.raisesProxy());
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
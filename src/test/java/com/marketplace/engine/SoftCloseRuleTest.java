@@ -0,0 +1,33 @@
+package com.marketplace.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoftCloseRuleTest {
+
+    private final LocalDateTime end = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void bidInWindow_LeavesTheExtensionToAnswer() {
+        SoftCloseRule rule = new SoftCloseRule(30, 60);
+
+        assertEquals(end.plusSeconds(50), rule.endTimeAfterBid(end, end.minusSeconds(10)));
+        assertEquals(end.plusSeconds(30), rule.endTimeAfterBid(end, end.minusSeconds(30)));
+    }
+
+    @Test
+    void bidBeforeWindow_OrWithRuleOff_KeepsEndTime() {
+        assertEquals(end, new SoftCloseRule(30, 60).endTimeAfterBid(end, end.minusSeconds(31)));
+        assertEquals(end, new SoftCloseRule(0, 60).endTimeAfterBid(end, end.minusSeconds(1)));
+    }
+
+    @Test
+    void extensionShorterThanTimeLeft_NeverMovesEndTimeEarlier() {
+        SoftCloseRule rule = new SoftCloseRule(60, 10);
+
+        assertEquals(end, rule.endTimeAfterBid(end, end.minusSeconds(30)));
+    }
+}
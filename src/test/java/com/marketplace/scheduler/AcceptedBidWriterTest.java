@@ -0,0 +1,120 @@
+package com.marketplace.scheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.enums.BiddingMode;
+import com.marketplace.service.LockService;
+import com.marketplace.service.RedisBidService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the accepted bid writer's SQL against H2 in MySQL mode, on the tables
+ * of database_schema.sql upgraded with database_upgrade.sql.
+ */
+class AcceptedBidWriterTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ListOperations<String, String> queue = mock(ListOperations.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<String> queued = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private AcceptedBidWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("auction_tables.sql"),
+                new FileSystemResource("database_upgrade.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        LockService lockService = mock(LockService.class);
+        when(lockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(redis.opsForList()).thenReturn(queue);
+        // The trim is lost, as in a crash between the commit and the trim: every drain sees the same batch
+        when(queue.range(eq(RedisBidService.ACCEPTED_BIDS_KEY), eq(0L), anyLong())).thenAnswer(i -> queued);
+        writer = new AcceptedBidWriter(redis, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), lockService, objectMapper,
+                null);
+        ReflectionTestUtils.setField(writer, "biddingMode", BiddingMode.REDIS_SCRIPT);
+
+        jdbcTemplate.update("INSERT INTO users (id, email) VALUES (1, 'seller@test.com'), (2, 'a@test.com'), "
+                + "(3, 'b@test.com')");
+        jdbcTemplate.update("INSERT INTO items (id, seller_id, title) VALUES (1, 1, 'Item')");
+        Timestamp start = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+        jdbcTemplate.update("INSERT INTO auctions (id, item_id, start_time, end_time, status) "
+                + "VALUES (1, 1, ?, ?, 'ACTIVE')", start, Timestamp.valueOf(LocalDateTime.now().plusHours(1)));
+    }
+
+    @Test
+    void redeliveredBatch_IsPersistedOnce() throws Exception {
+        long now = System.currentTimeMillis();
+        // Bidder 2 opens with a proxy, bidder 3 bids below it and the proxy auto-bids above
+        queue(new AcceptedBidWriter.AcceptedBid(1L, 1L, now,
+                List.of(new AcceptedBidWriter.BidRow(2L, 11000, false, false)),
+                new AcceptedBidWriter.ProxyRow(2L, 20000), 11000, 1, 2L, null, 1L));
+        queue(new AcceptedBidWriter.AcceptedBid(1L, 1L, now + 1,
+                List.of(new AcceptedBidWriter.BidRow(3L, 12000, false, false),
+                        new AcceptedBidWriter.BidRow(2L, 12500, true, true)),
+                new AcceptedBidWriter.ProxyRow(3L, 12000), 12500, 2, 2L, null, 2L));
+
+        writer.drain();
+        writer.drain();
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bids", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM proxy_bids", Integer.class));
+        Map<String, Object> auction = jdbcTemplate.queryForMap("SELECT * FROM auctions WHERE id = 1");
+        assertEquals(2, ((Number) auction.get("bid_count")).intValue());
+        assertEquals(2L, ((Number) auction.get("winner_id")).longValue());
+        BigDecimal leading = jdbcTemplate.queryForObject("SELECT amount FROM bids WHERE id = ?", BigDecimal.class,
+                auction.get("highest_bid_id"));
+        assertEquals(0, new BigDecimal("125.00").compareTo(leading));
+        assertEquals(0, new BigDecimal("125.00").compareTo(
+                jdbcTemplate.queryForObject("SELECT current_price FROM items WHERE id = 1", BigDecimal.class)));
+        verify(queue, times(2)).trim(RedisBidService.ACCEPTED_BIDS_KEY, 2, -1);
+    }
+
+    @Test
+    void bidOnClosedAuction_IsStoredCancelledWithoutTouchingTheAuction() throws Exception {
+        jdbcTemplate.update("UPDATE auctions SET status = 'CLOSED' WHERE id = 1");
+        queue(new AcceptedBidWriter.AcceptedBid(1L, 1L, System.currentTimeMillis(),
+                List.of(new AcceptedBidWriter.BidRow(2L, 11000, false, false)), null, 11000, 1, 2L, null, 1L));
+
+        writer.drain();
+
+        assertEquals("CANCELLED", jdbcTemplate.queryForObject("SELECT status FROM bids", String.class));
+        Map<String, Object> auction = jdbcTemplate.queryForMap("SELECT * FROM auctions WHERE id = 1");
+        assertNull(auction.get("highest_bid_id"));
+        assertNull(auction.get("winner_id"));
+    }
+
+    private void queue(AcceptedBidWriter.AcceptedBid bid) throws Exception {
+        queued.add(objectMapper.writeValueAsString(bid));
+    }
+}
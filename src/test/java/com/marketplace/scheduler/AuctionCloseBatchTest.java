@@ -0,0 +1,224 @@
+package com.marketplace.scheduler;
+
+import com.marketplace.engine.AuctionBidQueues;
+import com.marketplace.engine.AuctionCloseCatchUp;
+import com.marketplace.engine.AuctionCloseLag;
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.AuctionPriceSnapshots;
+import com.marketplace.engine.EndingSoonFeed;
+import com.marketplace.engine.PartitionedBidEngine;
+import com.marketplace.engine.ProxyBidBooks;
+import com.marketplace.enums.CloseCoordination;
+import com.marketplace.event.AuctionWonEvent;
+import com.marketplace.repository.AuctionRepository;
+import com.marketplace.repository.BidRepository;
+import com.marketplace.repository.ItemRepository;
+import com.marketplace.repository.OrderRepository;
+import com.marketplace.service.JournalBidService;
+import com.marketplace.service.LockService;
+import com.marketplace.service.RedisBidService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the batch close SQL against H2 in MySQL mode, on the tables of
+ * database_schema.sql upgraded with database_upgrade.sql.
+ */
+class AuctionCloseBatchTest {
+
+    private final AuctionRepository auctionRepository = mock(AuctionRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AuctionCloseSchedule closeSchedule = new AuctionCloseSchedule();
+    private final AuctionCloseShards closeShards = new AuctionCloseShards(null);
+    private final AuctionCloseBroadcast closeBroadcast = mock(AuctionCloseBroadcast.class);
+    private final ProxyBidBooks proxyBidBooks = mock(ProxyBidBooks.class);
+    private final AuctionPriceSnapshots priceSnapshots = mock(AuctionPriceSnapshots.class);
+
+    private JdbcTemplate jdbcTemplate;
+    private AuctionClosingScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("auction_tables.sql"),
+                new FileSystemResource("database_upgrade.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        scheduler = new AuctionClosingScheduler(auctionRepository, mock(BidRepository.class),
+                mock(OrderRepository.class), mock(ItemRepository.class), mock(LockService.class), messagingTemplate,
+                proxyBidBooks, priceSnapshots, mock(AuctionBidQueues.class), closeSchedule, closeShards,
+                closeBroadcast, mock(AuctionCloseLag.class), mock(AuctionCloseCatchUp.class),
+                mock(EndingSoonFeed.class), mock(AcceptedBidWriter.class), mock(RedisBidService.class),
+                mock(JournalBidService.class), mock(PartitionedBidEngine.class),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), jdbcTemplate,
+                new SimpleMeterRegistry(), eventPublisher);
+        scheduler.registerMeters();
+
+        jdbcTemplate.update("INSERT INTO users (id, email) VALUES (1, 'seller@test.com'), (2, 'bidder@test.com')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void closeBatch_ClaimsEndedAuctionsAndFinishesThem() {
+        LocalDateTime ended = LocalDateTime.now().minusSeconds(5);
+        insertAuction(1, "ACTIVE", ended);
+        insertWinningBid(1, 2, "150.00");
+        insertAuction(2, "ACTIVE", ended);
+
+        assertEquals(List.of(), closeBatch(1L, 2L));
+
+        Map<String, Object> won = auction(1);
+        assertEquals("CLOSED", won.get("status"));
+        assertEquals(2L, ((Number) won.get("winner_id")).longValue());
+        assertNotNull(won.get("closed_at"));
+        assertEquals("CLOSED", auction(2).get("status"));
+        assertNull(auction(2).get("winner_id"));
+
+        Map<String, Object> order = jdbcTemplate.queryForMap("SELECT * FROM orders");
+        assertEquals(1L, ((Number) order.get("item_id")).longValue());
+        assertEquals(2L, ((Number) order.get("buyer_id")).longValue());
+        assertEquals(1L, ((Number) order.get("seller_id")).longValue());
+        assertEquals(0, new BigDecimal("150.00").compareTo((BigDecimal) order.get("amount")));
+        assertEquals("AUCTION_WIN", order.get("order_type"));
+        verify(eventPublisher).publishEvent(any(AuctionWonEvent.class));
+        verify(messagingTemplate).convertAndSend("/topic/auction/2/ended", "NO_BIDS");
+        verify(closeBroadcast).publish(1L, 1L);
+        verify(closeBroadcast).publish(2L, 2L);
+    }
+
+    @Test
+    void closeBatch_ReturnsAuctionsItDidNotClaim() {
+        insertAuction(1, "ACTIVE", LocalDateTime.now().minusSeconds(5));
+        insertAuction(2, "ACTIVE", LocalDateTime.now().plusMinutes(5)); // Extended meanwhile
+        insertAuction(3, "CLOSED", LocalDateTime.now().minusSeconds(5));
+
+        assertEquals(List.of(2L, 3L), closeBatch(1L, 2L, 3L));
+
+        assertEquals("CLOSED", auction(1).get("status"));
+        assertEquals("ACTIVE", auction(2).get("status"));
+        assertNull(auction(2).get("close_claim"));
+    }
+
+    @Test
+    void closeBatch_FailedFinish_ReleasesClaimAndRetries() {
+        insertAuction(1, "ACTIVE", LocalDateTime.now().minusSeconds(5));
+        insertWinningBid(1, 2, "150.00");
+        doThrow(new IllegalStateException("listener failed")).when(eventPublisher)
+                .publishEvent(any(AuctionWonEvent.class));
+
+        assertEquals(List.of(), closeBatch(1L));
+
+        Map<String, Object> released = auction(1);
+        assertEquals("ACTIVE", released.get("status"));
+        assertNull(released.get("close_claim"));
+        assertNull(released.get("winner_id"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+        assertEquals(1, closeSchedule.size());
+        verifyNoInteractions(messagingTemplate, closeBroadcast);
+    }
+
+    @Test
+    void sweep_ReleasesOnlyStaleClaims() {
+        insertAuction(1, "ACTIVE", LocalDateTime.now().minusMinutes(20));
+        insertAuction(2, "ACTIVE", LocalDateTime.now().minusMinutes(20));
+        claim(1, LocalDateTime.now().minusMinutes(10));
+        claim(2, LocalDateTime.now());
+
+        scheduler.sweepEndingAuctions();
+
+        assertEquals("ACTIVE", auction(1).get("status"));
+        assertNull(auction(1).get("close_claim"));
+        assertEquals("CLOSING", auction(2).get("status"));
+    }
+
+    @Test
+    void sweep_InShardedMode_ReleasesStaleClaimsOfOwnPartitionsOnly() {
+        ReflectionTestUtils.setField(closeShards, "coordination", CloseCoordination.SHARDED);
+        ReflectionTestUtils.setField(closeShards, "partitions", 2);
+        ReflectionTestUtils.setField(closeShards, "owned", Set.of(1));
+        insertAuction(1, "ACTIVE", LocalDateTime.now().minusMinutes(20));
+        insertAuction(2, "ACTIVE", LocalDateTime.now().minusMinutes(20));
+        claim(1, LocalDateTime.now().minusMinutes(10));
+        claim(2, LocalDateTime.now().minusMinutes(10));
+
+        scheduler.sweepEndingAuctions();
+
+        assertEquals("ACTIVE", auction(1).get("status"));
+        assertEquals("CLOSING", auction(2).get("status")); // Partition 0 belongs to another node
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void closeAnnouncedByAnotherNode_DropsTheAuctionsState() {
+        scheduler.start();
+        ArgumentCaptor<BiConsumer<Long, Long>> listener = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(closeBroadcast).subscribe(listener.capture());
+        closeSchedule.schedule(5L, LocalDateTime.now().plusMinutes(5));
+
+        listener.getValue().accept(5L, 6L);
+
+        verify(proxyBidBooks).evict(5L);
+        verify(priceSnapshots).evict(6L);
+        assertEquals(0, closeSchedule.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> closeBatch(Long... auctionIds) {
+        return (List<Long>) ReflectionTestUtils.invokeMethod(scheduler, "closeBatch", List.of(auctionIds));
+    }
+
+    private void insertAuction(long id, String status, LocalDateTime endTime) {
+        jdbcTemplate.update("INSERT INTO items (id, seller_id, title) VALUES (?, 1, ?)", id, "Item " + id);
+        jdbcTemplate.update("INSERT INTO auctions (id, item_id, start_time, end_time, status) VALUES (?, ?, ?, ?, ?)",
+                id, id, Timestamp.valueOf(endTime.minusDays(1)), Timestamp.valueOf(endTime), status);
+    }
+
+    private void insertWinningBid(long auctionId, long bidderId, String amount) {
+        jdbcTemplate.update("INSERT INTO bids (id, auction_id, bidder_id, amount) VALUES (?, ?, ?, ?)", auctionId,
+                auctionId, bidderId, new BigDecimal(amount));
+        jdbcTemplate.update("UPDATE auctions SET highest_bid_id = ?, bid_count = 1 WHERE id = ?", auctionId,
+                auctionId);
+    }
+
+    private void claim(long auctionId, LocalDateTime at) {
+        jdbcTemplate.update("UPDATE auctions SET status = 'CLOSING', close_claim = 42, updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(at), auctionId);
+    }
+
+    private Map<String, Object> auction(long id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM auctions WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,67 @@
+package com.marketplace.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidIdempotencyServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BidIdempotencyService idempotency;
+    private final AtomicInteger placed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotency = new BidIdempotencyService(null, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void retryWithSameKey_ReturnsOriginalResponseWithoutPlacingAgain() {
+        String first = idempotency.execute("bidder@test.com", "key-1", "1:150:", this::placeBid).join();
+        String retry = idempotency.execute("bidder@test.com", "key-1", "1:150:", this::placeBid).join();
+        String otherBidder = idempotency.execute("other@test.com", "key-1", "1:150:", this::placeBid).join();
+
+        assertEquals(first, retry);
+        assertEquals("{\"bid\":1}", first);
+        assertEquals("{\"bid\":2}", otherBidder);
+        assertEquals(2, placed.get());
+        assertEquals(3, meterRegistry.get("bids.idempotency.checked").counter().count());
+        assertEquals(1, meterRegistry.get("bids.idempotency.hits").tag("tier", "local").counter().count());
+    }
+
+    @Test
+    void failedBid_IsNotRemembered() {
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> idempotency.execute("bidder@test.com", "key-1", "1:150:",
+                        () -> CompletableFuture.failedFuture(new RuntimeException("System busy, please try again")))
+                        .join());
+        String retry = idempotency.execute("bidder@test.com", "key-1", "1:150:", this::placeBid).join();
+
+        assertEquals("System busy, please try again", error.getCause().getMessage());
+        assertEquals("{\"bid\":1}", retry);
+    }
+
+    @Test
+    void keyReusedForDifferentBid_IsRejected() {
+        idempotency.execute("bidder@test.com", "key-1", "1:150:", this::placeBid).join();
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> idempotency.execute("bidder@test.com", "key-1", "1:175:", this::placeBid).join());
+
+        assertEquals("Idempotency-Key was already used for a different bid", error.getMessage());
+        assertEquals(1, placed.get());
+    }
+
+    private CompletableFuture<Map<String, Integer>> placeBid() {
+        return CompletableFuture.completedFuture(Map.of("bid", placed.incrementAndGet()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.marketplace.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BidRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new BidRateLimiter(null, meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "bidderPerSecond", 1.0);
+        ReflectionTestUtils.setField(rateLimiter, "bidderBurst", 5);
+        ReflectionTestUtils.setField(rateLimiter, "auctionPerSecond", 0.5);
+        ReflectionTestUtils.setField(rateLimiter, "auctionBurst", 2);
+    }
+
+    @Test
+    void floodOnOneAuction_IsThrottledWithoutBlockingOtherAuctions() {
+        assertEquals(0, rateLimiter.acquire("bot@test.com", 1L));
+        assertEquals(0, rateLimiter.acquire("bot@test.com", 1L));
+
+        long retryAfterMs = rateLimiter.acquire("bot@test.com", 1L);
+
+        assertTrue(retryAfterMs > 1000 && retryAfterMs <= 2000, "retry after " + retryAfterMs);
+        assertEquals(0, rateLimiter.acquire("bot@test.com", 2L));
+        assertEquals(0, rateLimiter.acquire("bidder@test.com", 1L));
+        assertEquals(1, meterRegistry.get("bids.throttled").tag("scope", "auction").counter().count());
+    }
+
+    @Test
+    void bidderLimit_AppliesAcrossAuctions_RejectedRequestsAreNotCharged() {
+        for (long itemId : new long[] { 1, 1, 2, 3 }) {
+            assertEquals(0, rateLimiter.acquire("bot@test.com", itemId));
+        }
+        assertTrue(rateLimiter.acquire("bot@test.com", 1L) > 0); // Auction limit, bidder token given back
+        assertTrue(rateLimiter.acquire("bot@test.com", 1L) > 0);
+
+        assertEquals(0, rateLimiter.acquire("bot@test.com", 5L));
+        assertTrue(rateLimiter.acquire("bot@test.com", 6L) > 0);
+        assertTrue(rateLimiter.acquire("bot@test.com", null) > 0);
+        assertEquals(2, meterRegistry.get("bids.throttled").tag("scope", "bidder").counter().count());
+        assertEquals(2, meterRegistry.get("bids.throttled").tag("scope", "auction").counter().count());
+    }
+
+    @Test
+    void batch_IsChargedPerEntryAndPerAuction_AllOrNone() {
+        assertEquals(0, rateLimiter.acquireBatch("bot@test.com", List.of(1L, 1L, 2L)));
+
+        // Third bid on item 1: rejected, and neither bucket is charged for the batch
+        assertTrue(rateLimiter.acquireBatch("bot@test.com", List.of(2L, 1L)) > 0);
+        assertEquals(0, rateLimiter.acquire("bot@test.com", 2L));
+        assertEquals(0, rateLimiter.acquire("bot@test.com", 3L));
+        assertTrue(rateLimiter.acquire("bot@test.com", 4L) > 0); // Five bidder tokens used
+        assertEquals(1, meterRegistry.get("bids.throttled").tag("scope", "auction").counter().count());
+    }
+
+    @Test
+    void batch_LargerThanBurst_IsRejectedOutright() {
+        assertThrows(RuntimeException.class,
+                () -> rateLimiter.acquireBatch("bot@test.com", List.of(1L, 2L, 3L, 4L, 5L, 6L)));
+        assertThrows(RuntimeException.class, () -> rateLimiter.acquireBatch("bot@test.com", List.of(1L, 1L, 1L)));
+        assertEquals(0, rateLimiter.acquireBatch("bot@test.com", List.of(1L, 2L, 3L, 4L, 5L)));
+    }
+
+    @Test
+    void batchMaxEntriesAboveBurst_FailsStartup() {
+        ReflectionTestUtils.setField(rateLimiter, "batchMaxEntries", 6);
+        assertThrows(IllegalStateException.class, rateLimiter::checkBatchLimit);
+
+        ReflectionTestUtils.setField(rateLimiter, "batchMaxEntries", 5);
+        rateLimiter.checkBatchLimit();
+    }
+}
@@ -1,16 +1,33 @@
 package com.marketplace.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.dto.BatchBidRequest;
+import com.marketplace.dto.BatchBidResult;
+import com.marketplace.dto.AuctionExtension;
+import com.marketplace.engine.AuctionBidQueues;
+import com.marketplace.engine.AuctionCloseSchedule;
+import com.marketplace.engine.AuctionPriceSnapshots;
+import com.marketplace.engine.BatchBidExecutor;
+import com.marketplace.engine.EndingSoonFeed;
+import com.marketplace.engine.ProxyBidBooks;
+import com.marketplace.engine.SoftCloseRule;
 import com.marketplace.entity.*;
 import com.marketplace.enums.AuctionStatus;
 import com.marketplace.enums.BidStatus;
+import com.marketplace.enums.BiddingMode;
 import com.marketplace.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,6 +37,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,11 +54,12 @@ class BidServiceTest {
     @Mock
     private ProxyBidRepository proxyBidRepository;
     @Mock
-    private RedisLockService redisLockService;
+    private LockService lockService;
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
-    @InjectMocks
+    private final AuctionCloseSchedule closeSchedule = new AuctionCloseSchedule();
+    private final SoftCloseRule softClose = new SoftCloseRule(30, 60);
     private BidService bidService;
 
     private User bidder;
@@ -50,6 +69,14 @@ class BidServiceTest {
 
     @BeforeEach
     void setUp() {
+        bidService = new BidService(bidRepository, auctionRepository, userRepository, itemRepository,
+                proxyBidRepository, lockService, messagingTemplate, event -> {
+                }, null, new ProxyBidBooks(proxyBidRepository, auctionRepository), null, null,
+                new AuctionPriceSnapshots(new SimpleMeterRegistry(), softClose), new BatchBidExecutor(2),
+                new AuctionBidQueues(2, 8, new SimpleMeterRegistry()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), closeSchedule,
+                softClose, new EndingSoonFeed(auctionRepository));
+
         bidder = User.builder().id(1L).email("bidder@test.com").build();
         seller = User.builder().id(2L).email("seller@test.com").build();
 
@@ -73,9 +100,9 @@ class BidServiceTest {
     @Test
     void placeBid_Successful() {
         when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
-        when(auctionRepository.findByItemId(1L)).thenReturn(Optional.of(auction));
-        when(redisLockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
-        when(auctionRepository.findById(1L)).thenReturn(Optional.of(auction));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(lockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(auctionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(auction));
         when(bidRepository.save(any(Bid.class))).thenAnswer(i -> {
             Bid b = i.getArgument(0);
             b.setId(100L);
@@ -91,6 +118,117 @@ class BidServiceTest {
         verify(itemRepository).save(item);
     }
 
+    @Test
+    void placeBid_InSoftCloseWindow_ExtendsEndTimeAndReschedulesClose() {
+        LocalDateTime endTime = LocalDateTime.now().plusSeconds(10);
+        auction.setEndTime(endTime);
+        when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(lockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(auctionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(auction));
+        when(bidRepository.save(any(Bid.class))).thenAnswer(i -> i.getArgument(0));
+
+        bidService.placeBid(1L, new BigDecimal("120.00"), null, "bidder@test.com");
+
+        assertTrue(auction.getEndTime().isAfter(endTime.plusSeconds(45)));
+        verify(auctionRepository).save(auction);
+        verify(messagingTemplate).convertAndSend(eq("/topic/auction/1/extended"), any(AuctionExtension.class));
+        assertEquals(1, closeSchedule.size());
+    }
+
+    @Test
+    void placeBid_RejectsTooLowBidFromSnapshotBeforeLocking() {
+        when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(lockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(auctionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(auction));
+        when(bidRepository.save(any(Bid.class))).thenAnswer(i -> i.getArgument(0));
+
+        bidService.placeBid(1L, new BigDecimal("120.00"), null, "bidder@test.com");
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bidService.placeBid(1L, new BigDecimal("125.00"), null, "bidder@test.com"));
+        assertEquals("Bid must be at least 130.00", e.getMessage());
+        verify(auctionRepository, times(1)).findIdByItemId(1L);
+        verify(lockService, times(1)).acquireLockWithRetry(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void placeBid_RejectsInvalidAmountsBeforeAnyLookup() {
+        RuntimeException scale = assertThrows(RuntimeException.class,
+                () -> bidService.placeBid(1L, new BigDecimal("150.005"), null, "bidder@test.com"));
+        assertEquals("Amount must have at most two decimal places", scale.getMessage());
+
+        RuntimeException proxyScale = assertThrows(RuntimeException.class,
+                () -> bidService.placeBid(1L, new BigDecimal("150.00"), new BigDecimal("200.005"),
+                        "bidder@test.com"));
+        assertEquals("Maximum proxy amount must have at most two decimal places", proxyScale.getMessage());
+
+        RuntimeException range = assertThrows(RuntimeException.class,
+                () -> bidService.placeBid(1L, new BigDecimal("1E+17"), null, "bidder@test.com"));
+        assertEquals("Amount must be at most 99999999.99", range.getMessage());
+
+        // Trailing zeros beyond two decimals are still whole cents, so this one gets to the lookup
+        RuntimeException lookup = assertThrows(RuntimeException.class,
+                () -> bidService.placeBid(1L, new BigDecimal("150.000"), null, "bidder@test.com"));
+        assertEquals("Auction not found for this item", lookup.getMessage());
+        verify(lockService, never()).acquireLockWithRetry(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void placeBids_RejectsInvalidAmountPerEntry() {
+        List<BatchBidResult> results = bidService.placeBids(List.of(
+                new BatchBidRequest.Entry(1L, new BigDecimal("150.005"), null)), "bidder@test.com");
+
+        assertFalse(results.get(0).isAccepted());
+        assertEquals("Amount must have at most two decimal places", results.get(0).getError());
+    }
+
+    @Test
+    void placeBids_GroupsByAuctionUnderOneLockWithPerEntryResults() {
+        when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(lockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(auctionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(auction));
+        when(bidRepository.save(any(Bid.class))).thenAnswer(i -> i.getArgument(0));
+
+        List<BatchBidResult> results = bidService.placeBids(List.of(
+                new BatchBidRequest.Entry(1L, new BigDecimal("120.00"), null),
+                new BatchBidRequest.Entry(2L, new BigDecimal("50.00"), null),
+                new BatchBidRequest.Entry(1L, new BigDecimal("125.00"), null)), "bidder@test.com");
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isAccepted());
+        assertEquals("Auction not found for this item", results.get(1).getError());
+        assertEquals("Bid must be at least 130.00", results.get(2).getError());
+        verify(lockService, times(1)).acquireLockWithRetry(eq("auction:1"), anyLong(), anyLong());
+        verify(lockService, times(1)).releaseLock("auction:1");
+    }
+
+    @Test
+    void placeBids_ResultsSerializeWithoutLazyAssociations() throws Exception {
+        when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(lockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(auctionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(auction));
+        when(bidRepository.save(any(Bid.class))).thenAnswer(i -> {
+            Bid b = i.getArgument(0);
+            b.setId(100L);
+            return b;
+        });
+
+        List<BatchBidResult> results = bidService.placeBids(
+                List.of(new BatchBidRequest.Entry(1L, new BigDecimal("120.00"), null)), "bidder@test.com");
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(results).get(0).get("bid");
+        assertEquals(100L, json.get("id").asLong());
+        assertEquals(1L, json.get("auctionId").asLong());
+        assertEquals(1L, json.get("itemId").asLong());
+        assertEquals(1L, json.get("bidderId").asLong());
+        assertFalse(json.has("auction"));
+        assertFalse(json.has("bidder"));
+    }
+
     @Test
     void placeBid_WithProxyCompetition() {
         // Setup existing proxy from another user
@@ -102,10 +240,11 @@ class BidServiceTest {
                 .build();
 
         when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
-        when(auctionRepository.findByItemId(1L)).thenReturn(Optional.of(auction));
-        when(redisLockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
-        when(auctionRepository.findById(1L)).thenReturn(Optional.of(auction));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(lockService.acquireLockWithRetry(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(auctionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(auction));
         when(proxyBidRepository.findByAuctionIdAndIsActiveTrue(1L)).thenReturn(List.of(otherProxy));
+        when(userRepository.getReferenceById(3L)).thenReturn(otherUser);
 
         // We place 120, Other has 150. Other should win at 130 (120 + 10).
         // Our bid of 120 is placed (and beaten).
@@ -124,4 +263,55 @@ class BidServiceTest {
         assertEquals(otherUser.getId(), result.getBidder().getId());
         assertTrue(result.getIsAutoBid());
     }
+
+    @Test
+    void placeBid_OptimisticRetriesAfterConflict() {
+        ReflectionTestUtils.setField(bidService, "biddingMode", BiddingMode.OPTIMISTIC);
+        when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(auctionRepository.findById(1L)).thenReturn(Optional.of(auction));
+        when(bidRepository.save(any(Bid.class))).thenAnswer(i -> {
+            Bid b = i.getArgument(0);
+            b.setId(100L);
+            return b;
+        });
+        // Another bid wins the first attempt's compare-and-set
+        when(auctionRepository.compareAndSetHighestBid(eq(1L), eq(0L), eq(100L), eq(bidder), any(), any()))
+                .thenReturn(0, 1);
+
+        Bid result = bidService.placeBid(1L, new BigDecimal("120.00"), null, "bidder@test.com");
+
+        assertEquals(new BigDecimal("120.00"), result.getAmount());
+        verify(auctionRepository, times(2)).compareAndSetHighestBid(eq(1L), eq(0L), eq(100L), eq(bidder), any(),
+                any());
+        verify(itemRepository, times(1)).updateCurrentPrice(1L, new BigDecimal("120.00"));
+        verify(auctionRepository, never()).save(any());
+        verifyNoInteractions(lockService);
+    }
+
+    @Test
+    void placeBid_OptimisticRetriesConcurrentFirstProxyOfSameBidder() {
+        ReflectionTestUtils.setField(bidService, "biddingMode", BiddingMode.OPTIMISTIC);
+        when(userRepository.findByEmail("bidder@test.com")).thenReturn(Optional.of(bidder));
+        when(auctionRepository.findIdByItemId(1L)).thenReturn(Optional.of(1L));
+        when(auctionRepository.findById(1L)).thenReturn(Optional.of(auction));
+        when(bidRepository.save(any(Bid.class))).thenAnswer(i -> {
+            Bid b = i.getArgument(0);
+            b.setId(100L);
+            return b;
+        });
+        // The bidder's other request inserted its first proxy in between
+        when(proxyBidRepository.saveAndFlush(any(ProxyBid.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry for key 'unique_active_proxy'"))
+                .thenAnswer(i -> i.getArgument(0));
+        when(auctionRepository.compareAndSetHighestBid(eq(1L), eq(0L), eq(100L), eq(bidder), any(), any()))
+                .thenReturn(1);
+
+        Bid result = bidService.placeBid(1L, new BigDecimal("120.00"), new BigDecimal("200.00"),
+                "bidder@test.com");
+
+        assertEquals(new BigDecimal("120.00"), result.getAmount());
+        verify(proxyBidRepository, times(2)).saveAndFlush(any(ProxyBid.class));
+        verify(bidRepository, times(1)).save(any(Bid.class));
+    }
 }
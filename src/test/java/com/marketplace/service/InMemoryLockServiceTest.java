@@ -0,0 +1,137 @@
+package com.marketplace.service;
+
+import com.marketplace.engine.LockContention;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLockServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger setCalls = new AtomicInteger();
+    private final AtomicInteger renewCalls = new AtomicInteger();
+    private final AtomicBoolean renewalsFail = new AtomicBoolean();
+    private InMemoryLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = newLockService(true);
+    }
+
+    @Test
+    void sameNodeWaiter_WaitsOnLocalLockWithoutTouchingTheStore() throws Exception {
+        assertTrue(lockService.acquireLockWithRetry("auction:1", 1000, 5000));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            boolean locked = lockService.acquireLockWithRetry("auction:1", 5000, 5000);
+            lockService.releaseLock("auction:1");
+            return locked;
+        });
+        Thread.sleep(200);
+        assertEquals(1, setCalls.get());
+        assertFalse(waiter.isDone());
+
+        lockService.releaseLock("auction:1");
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(2, setCalls.get());
+        assertEquals(2, meterRegistry.get("locks.wait").tags("prefix", "auction", "outcome", "acquired")
+                .timer().count());
+        assertTrue(meterRegistry.get("locks.wait").tag("outcome", "acquired").timer()
+                .max(TimeUnit.MILLISECONDS) >= 150);
+        assertEquals(2, meterRegistry.get("locks.held").tag("prefix", "auction").timer().count());
+    }
+
+    @Test
+    void waiterWithoutLocalQueue_IsWokenByRelease() throws Exception {
+        InMemoryLockService unqueued = newLockService(false);
+        assertTrue(unqueued.acquireLockWithRetry("auction:1", 1000, 5000));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(
+                () -> unqueued.acquireLockWithRetry("auction:1", 5000, 5000));
+        Thread.sleep(100);
+        assertFalse(waiter.isDone());
+        assertFalse(unqueued.acquireLock("auction:1", 5000));
+
+        unqueued.releaseLock("auction:1");
+
+        assertTrue(waiter.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void expiredLease_IsNotReleasedOverTheNextHolder_AndTokensIncrease() throws Exception {
+        InMemoryLockService unqueued = newLockService(false);
+        renewalsFail.set(true);
+        assertTrue(unqueued.acquireLock("auction:1", 50));
+        long first = unqueued.fencingToken("auction:1");
+        Thread.sleep(100);
+
+        long next = CompletableFuture.supplyAsync(() -> unqueued.acquireLock("auction:1", 5000)
+                ? unqueued.fencingToken("auction:1") : 0).get(1, TimeUnit.SECONDS);
+        unqueued.releaseLock("auction:1"); // Late release by the first holder
+
+        assertTrue(next > first);
+        assertFalse(unqueued.acquireLock("auction:1", 5000));
+    }
+
+    @Test
+    void keysWithEqualHashes_AreQueuedSeparately() throws Exception {
+        assertEquals("auction:Aa".hashCode(), "auction:BB".hashCode());
+        assertTrue(lockService.acquireLock("auction:Aa", 5000));
+
+        boolean other = CompletableFuture.supplyAsync(() -> {
+            boolean locked = lockService.acquireLock("auction:BB", 5000);
+            lockService.releaseLock("auction:BB");
+            return locked;
+        }).get(1, TimeUnit.SECONDS);
+
+        assertTrue(other);
+        assertFalse(CompletableFuture.supplyAsync(() -> lockService.acquireLock("auction:Aa", 5000))
+                .get(1, TimeUnit.SECONDS));
+        lockService.releaseLock("auction:Aa");
+        assertTrue(CompletableFuture.supplyAsync(() -> {
+            boolean locked = lockService.acquireLock("auction:Aa", 5000);
+            lockService.releaseLock("auction:Aa");
+            return locked;
+        }).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void watchdog_RenewsLeaseWhileHolderIsWorking() throws Exception {
+        assertTrue(lockService.acquireLock("auction:1", 90));
+
+        Thread.sleep(200); // Renewed every 30 ms
+
+        assertTrue(renewCalls.get() >= 3, "renewed " + renewCalls.get() + " times");
+        lockService.releaseLock("auction:1");
+        int renewedBeforeRelease = renewCalls.get();
+        Thread.sleep(100);
+        assertEquals(renewedBeforeRelease, renewCalls.get());
+    }
+
+    private InMemoryLockService newLockService(boolean localQueue) {
+        InMemoryLockService service = new InMemoryLockService(new LockContention(meterRegistry)) {
+            @Override
+            protected long setLock(String key, long leaseMs) {
+                setCalls.incrementAndGet();
+                return super.setLock(key, leaseMs);
+            }
+
+            @Override
+            protected boolean renewLock(String key, long token, long leaseMs) {
+                renewCalls.incrementAndGet();
+                return !renewalsFail.get() && super.renewLock(key, token, leaseMs);
+            }
+        };
+        ReflectionTestUtils.setField(service, "localQueue", localQueue);
+        return service;
+    }
+}
@@ -0,0 +1,168 @@
+package com.marketplace.service;
+
+import com.marketplace.engine.SoftCloseRule;
+import com.marketplace.entity.*;
+import com.marketplace.enums.AuctionStatus;
+import com.marketplace.repository.AuctionRepository;
+import com.marketplace.repository.ProxyBidRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the bid acceptance script against a local Redis (REDIS_HOST/REDIS_PORT,
+ * default localhost:6379). Skipped when no Redis is reachable.
+ *
+ * The test deletes the accepted bid queue, so it works in its own database
+ * (REDIS_TEST_DATABASE, default 15), never the application's database 0.
+ */
+class RedisBidServiceTest {
+
+    private static final Long AUCTION_ID = 9_000_001L;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private AuctionRepository auctionRepository;
+    private ProxyBidRepository proxyBidRepository;
+    private RedisBidService redisBidService;
+
+    private User bidder;
+    private User otherBidder;
+
+    @BeforeEach
+    void setUp() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(host, port);
+        config.setDatabase(Integer.parseInt(System.getenv().getOrDefault("REDIS_TEST_DATABASE", "15")));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        redis = new StringRedisTemplate(connectionFactory);
+        assumeTrue(isReachable(), "No Redis at " + host + ":" + port);
+        clearKeys();
+
+        User seller = User.builder().id(2L).email("seller@test.com").build();
+        bidder = User.builder().id(1L).email("bidder@test.com").build();
+        otherBidder = User.builder().id(3L).email("other@test.com").build();
+        Item item = Item.builder().id(1L).seller(seller).currentPrice(new BigDecimal("100.00")).build();
+        Auction auction = Auction.builder()
+                .id(AUCTION_ID)
+                .item(item)
+                .status(AuctionStatus.ACTIVE)
+                .startTime(LocalDateTime.now().minusHours(1))
+                .endTime(LocalDateTime.now().plusHours(1))
+                .minBidIncrement(new BigDecimal("10.00"))
+                .bidCount(1)
+                .build();
+
+        auctionRepository = mock(AuctionRepository.class);
+        proxyBidRepository = mock(ProxyBidRepository.class);
+        when(auctionRepository.findById(AUCTION_ID)).thenReturn(Optional.of(auction));
+        when(proxyBidRepository.findByAuctionIdAndIsActiveTrue(AUCTION_ID)).thenReturn(List.of());
+
+        redisBidService = new RedisBidService(redis, auctionRepository, proxyBidRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SoftCloseRule(0, 60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (isReachable()) {
+            clearKeys();
+        }
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void acceptBid_LoadsStateAndQueuesOutcome() {
+        RedisBidService.Acceptance acceptance = redisBidService.acceptBid(AUCTION_ID, bidder.getId(),
+                new BigDecimal("120.00"), null);
+
+        assertEquals(bidder.getId(), acceptance.winnerId());
+        assertEquals(new BigDecimal("120.00"), acceptance.amount());
+        assertEquals("12000", redis.opsForHash().get(RedisBidService.stateKey(AUCTION_ID), "price"));
+        assertEquals("2", redis.opsForHash().get(RedisBidService.stateKey(AUCTION_ID), "bidCount"));
+        assertEquals(1L, redis.opsForList().size(RedisBidService.ACCEPTED_BIDS_KEY));
+        verify(auctionRepository, times(1)).findById(AUCTION_ID);
+    }
+
+    @Test
+    void acceptBid_RejectsBidBelowMinimum() {
+        redisBidService.acceptBid(AUCTION_ID, bidder.getId(), new BigDecimal("120.00"), null);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> redisBidService.acceptBid(AUCTION_ID, otherBidder.getId(), new BigDecimal("125.00"), null));
+
+        assertEquals("Bid must be at least 130.00", e.getMessage());
+        assertEquals(1L, redis.opsForList().size(RedisBidService.ACCEPTED_BIDS_KEY));
+    }
+
+    @Test
+    void acceptBid_ExistingProxyAutoBidsAboveIncomingBid() {
+        redisBidService.acceptBid(AUCTION_ID, otherBidder.getId(), new BigDecimal("110.00"), new BigDecimal("150.00"));
+
+        RedisBidService.Acceptance acceptance = redisBidService.acceptBid(AUCTION_ID, bidder.getId(),
+                new BigDecimal("120.00"), null);
+
+        assertEquals(otherBidder.getId(), acceptance.winnerId());
+        assertEquals(new BigDecimal("130.00"), acceptance.amount());
+        assertTrue(acceptance.autoBid());
+    }
+
+    @Test
+    void closeBidding_RejectsLaterBids_AndKeepsExtendedAuctionsOpen() {
+        redisBidService.acceptBid(AUCTION_ID, bidder.getId(), new BigDecimal("120.00"), null);
+
+        Map<Long, LocalDateTime> extended = redisBidService.closeBidding(List.of(AUCTION_ID),
+                LocalDateTime.now().plusHours(2));
+
+        assertTrue(extended.isEmpty());
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> redisBidService.acceptBid(AUCTION_ID, otherBidder.getId(), new BigDecimal("140.00"), null));
+        assertEquals("Auction is not active", e.getMessage());
+
+        redisBidService.reopenBidding(AUCTION_ID);
+        redisBidService.acceptBid(AUCTION_ID, otherBidder.getId(), new BigDecimal("140.00"), null);
+        assertEquals(Set.of(AUCTION_ID),
+                redisBidService.closeBidding(List.of(AUCTION_ID), LocalDateTime.now()).keySet());
+    }
+
+    @Test
+    void closeBidding_KeepsAuctionNotInRedisFromLoading() {
+        redisBidService.closeBidding(List.of(AUCTION_ID), LocalDateTime.now());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> redisBidService.acceptBid(AUCTION_ID, bidder.getId(), new BigDecimal("120.00"), null));
+
+        assertEquals("Auction is not active", e.getMessage());
+        verify(auctionRepository, never()).findById(AUCTION_ID);
+    }
+
+    private boolean isReachable() {
+        try {
+            return "PONG".equals(redis.execute((org.springframework.data.redis.core.RedisCallback<String>) c -> c.ping()));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void clearKeys() {
+        redis.delete(List.of(RedisBidService.stateKey(AUCTION_ID), RedisBidService.proxiesKey(AUCTION_ID),
+                RedisBidService.ACCEPTED_BIDS_KEY));
+    }
+}
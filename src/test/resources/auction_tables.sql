@@ -0,0 +1,69 @@
+-- Tables read and written by the batch close and the accepted bid writer, as
+-- created by database_schema.sql before database_upgrade.sql. Loaded into H2
+-- in MySQL mode, which keeps index names unique across tables.
+
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE items (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    seller_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    current_price DECIMAL(10, 2),
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (seller_id) REFERENCES users(id)
+);
+
+CREATE TABLE auctions (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    item_id BIGINT NOT NULL UNIQUE,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    highest_bid_id BIGINT,
+    bid_count INT DEFAULT 0,
+    status ENUM('SCHEDULED', 'ACTIVE', 'CLOSED', 'CANCELLED') NOT NULL DEFAULT 'SCHEDULED',
+    winner_id BIGINT,
+    closed_at TIMESTAMP NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (item_id) REFERENCES items(id)
+);
+
+CREATE TABLE bids (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    auction_id BIGINT NOT NULL,
+    bidder_id BIGINT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    is_proxy_bid BOOLEAN DEFAULT FALSE,
+    is_auto_bid BOOLEAN DEFAULT FALSE,
+    status ENUM('ACTIVE', 'OUTBID', 'WINNING', 'WON', 'LOST', 'CANCELLED') NOT NULL DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (auction_id) REFERENCES auctions(id),
+    FOREIGN KEY (bidder_id) REFERENCES users(id)
+);
+
+CREATE TABLE proxy_bids (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    auction_id BIGINT NOT NULL,
+    bidder_id BIGINT NOT NULL,
+    max_amount DECIMAL(10, 2) NOT NULL,
+    current_amount DECIMAL(10, 2) NOT NULL,
+    is_active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (auction_id) REFERENCES auctions(id),
+    UNIQUE KEY unique_active_proxy (auction_id, bidder_id, is_active)
+);
+
+CREATE TABLE orders (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    item_id BIGINT NOT NULL,
+    buyer_id BIGINT NOT NULL,
+    seller_id BIGINT NOT NULL,
+    order_type ENUM('AUCTION_WIN', 'FIXED_PRICE', 'BUY_NOW') NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    status ENUM('PENDING_PAYMENT', 'PAID', 'SHIPPED', 'DELIVERED', 'COMPLETED', 'CANCELLED', 'DISPUTED') NOT NULL DEFAULT 'PENDING_PAYMENT',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);